@@ -0,0 +1,98 @@
+package org.jboss.set.payload.benchmarks;
+
+import org.jboss.set.payload.ConfigKeys;
+import org.jboss.set.payload.Main;
+import org.jboss.set.payload.fakes.Dataset;
+import org.jboss.set.payload.fakes.FakeServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete {@link Main#run()} over a generated dataset, with Jira, PNC and the LLM endpoint replaced by
+ * in-process fake services. Each invocation starts with empty caches, so all remote calls are made.
+ * <p>
+ * The fake services answer immediately, so the numbers reflect the overhead of the pipeline itself: issue retrieval
+ * and parsing, strategy chain, manifest checks and reports. Jira is run in the dry mode.
+ * <p>
+ * Run by {@code java -jar benchmarks/target/benchmarks.jar PipelineBenchmark}. Reports are written into the working
+ * directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"500"})
+    public int issues;
+
+    @Param({"1", "8"})
+    public int workers;
+
+    @Param({"false", "true"})
+    public boolean bulkFetch;
+
+    private FakeServices services;
+    private Main main;
+
+    @Setup(Level.Trial)
+    public void startServices() throws IOException {
+        services = new FakeServices(Dataset.generate(issues, Dataset.DEFAULT_SEED));
+
+        // Main reads its configuration from the default sources, which include system properties.
+        services.getConfiguration().forEach(System::setProperty);
+        System.setProperty(ConfigKeys.JIRA_QUERY, "project = FAKE");
+        System.setProperty(ConfigKeys.JIRA_DRY_MODE, "true");
+        System.setProperty(ConfigKeys.JIRA_BULK_FETCH, String.valueOf(bulkFetch));
+        System.setProperty(ConfigKeys.PROCESSING_WORKERS, String.valueOf(workers));
+        System.setProperty(ConfigKeys.DEPENDENCY_GROUPS_FILE, Dataset.dependencyGroupsFile().toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void createMain() throws IOException {
+        main = new Main(List.of(Dataset.manifestFile()), List.of("benchmark-manifest"), "8.1.0.GA",
+                "8.1.0.GA.CR1", "");
+    }
+
+    @Benchmark
+    public void run() {
+        main.run();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeMain() throws IOException {
+        main.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServices() {
+        services.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PipelineBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
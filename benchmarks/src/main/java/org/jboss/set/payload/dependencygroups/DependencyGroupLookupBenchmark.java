@@ -0,0 +1,88 @@
+package org.jboss.set.payload.dependencygroups;
+
+import org.jboss.set.payload.fakes.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares artifactId lookup throughput of the indexed {@link DependencyGroupLookup} with the full scan over all
+ * groups it replaced.
+ * <p>
+ * Run by {@code java -jar benchmarks/target/benchmarks.jar DependencyGroupLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyGroupLookupBenchmark {
+
+    /**
+     * Unique artifactId, ambiguous artifactId and unknown component respectively.
+     */
+    @Param({"wildfly-metrics", "wildfly-ee", "no-such-component"})
+    public String componentAlias;
+
+    private DependencyGroupLookup lookup;
+    private List<DependencyGroup> groups;
+
+    @Setup
+    public void setup() throws IOException {
+        lookup = new DependencyGroupLookup(Dataset.dependencyGroupsFile().toFile());
+        groups = lookup.getGroups();
+    }
+
+    @Benchmark
+    public Collection<String> index() {
+        return lookup.findArtifacts(componentAlias);
+    }
+
+    /**
+     * The artifactId fallback as it was implemented before the index was introduced.
+     */
+    @Benchmark
+    public Collection<String> scan() {
+        List<DependencyGroup> matchingGroups = new ArrayList<>();
+        for (DependencyGroup group: groups) {
+            for (String ga: group.getDependencies()) {
+                String[] segments = ga.split(":");
+                if (segments.length > 1) {
+                    String artifactId = segments[1];
+                    if (componentAlias.equals(artifactId)) {
+                        matchingGroups.add(group);
+                    }
+                }
+            }
+        }
+        if (matchingGroups.size() == 1) {
+            return matchingGroups.get(0).getDependencies();
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DependencyGroupLookupBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
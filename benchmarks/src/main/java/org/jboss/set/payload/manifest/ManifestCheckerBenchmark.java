@@ -0,0 +1,99 @@
+package org.jboss.set.payload.manifest;
+
+import org.jboss.set.payload.fakes.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ManifestChecker#test} over the test manifest with the previous implementation, which compared raw
+ * version strings by {@link ManifestChecker#VERSION_COMPARATOR}.
+ * <p>
+ * Queries contain given number of artifacts, like PNC builds do: most of them are manifest streams at the manifest
+ * version, some are not present in the manifest. All of them are satisfied by the manifest, so every artifact is
+ * compared.
+ * <p>
+ * Run by {@code java -jar benchmarks/target/benchmarks.jar ManifestCheckerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManifestCheckerBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int querySize;
+
+    private ManifestChecker checker;
+    private Map<String, String> manifestStreams;
+    private ManifestChecker.ComponentQuery query;
+
+    @Setup
+    public void setup() throws Exception {
+        Path manifestPath = Dataset.manifestFile();
+        checker = new ManifestChecker(manifestPath);
+        manifestStreams = ManifestChecker.loadManifestStreams(manifestPath);
+
+        List<Map.Entry<String, String>> streams = new ArrayList<>(manifestStreams.entrySet());
+        Map<String, String> artifacts = new LinkedHashMap<>();
+        for (int i = 0; i < querySize; i++) {
+            if (i % 10 == 9) {
+                artifacts.put("org.example:not-in-manifest-" + i, "1.0.0.Final-redhat-00001");
+            } else {
+                Map.Entry<String, String> stream = streams.get(i % streams.size());
+                artifacts.put(stream.getKey(), stream.getValue());
+            }
+        }
+        query = new ManifestChecker.ComponentQuery("JBEAP-1", artifacts);
+    }
+
+    @Benchmark
+    public Boolean preParsed() {
+        return checker.test(query);
+    }
+
+    /**
+     * The comparison loop as it was implemented before the versions were pre-parsed, without logging.
+     */
+    @Benchmark
+    public Boolean rawStrings() {
+        boolean presentInManifest = false;
+        for (Map.Entry<String, String> entry : query.upgradedArtifacts().entrySet()) {
+            if (manifestStreams.containsKey(entry.getKey())) {
+                presentInManifest = true;
+                String versionInManifest = manifestStreams.get(entry.getKey());
+                if (ManifestChecker.VERSION_COMPARATOR.compare(entry.getValue().trim(), versionInManifest.trim()) > 0) {
+                    return false;
+                }
+            }
+        }
+        return presentInManifest ? true : null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ManifestCheckerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,92 @@
+package org.jboss.set.payload.manifest;
+
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reports load time and peak heap usage of a synthetic manifest with given number of streams (50 000 by default),
+ * loaded by {@link ChannelManifestMapper} as before, and by {@link ManifestStreamsLoader} with and without memory
+ * mapping.
+ * <p>
+ * Peak heap is taken from the heap memory pools, so for meaningful numbers run each loader in a fresh JVM with a
+ * small young generation, e.g.:
+ * {@code java -Xmx1g -cp benchmarks/target/benchmarks.jar org.jboss.set.payload.manifest.ManifestLoadHarness 50000
+ * streaming}
+ */
+public class ManifestLoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        int streams = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        String loader = args.length > 1 ? args[1] : "all";
+
+        Path manifestPath = Files.createTempFile("synthetic-manifest", ".yaml");
+        try {
+            writeSyntheticManifest(manifestPath, streams);
+            System.out.printf("Manifest with %d streams, %d kB%n", streams, Files.size(manifestPath) / 1024);
+            if (loader.equals("all") || loader.equals("mapper")) {
+                measure("ChannelManifestMapper", () -> {
+                    ChannelManifest manifest = ChannelManifestMapper.fromString(Files.readString(manifestPath));
+                    return manifest.getStreams().size();
+                });
+            }
+            if (loader.equals("all") || loader.equals("streaming")) {
+                measure("streaming", () -> ManifestStreamsLoader.load(manifestPath, false).size());
+            }
+            if (loader.equals("all") || loader.equals("mmap")) {
+                measure("streaming, memory-mapped", () -> ManifestStreamsLoader.load(manifestPath, true).size());
+            }
+        } finally {
+            Files.deleteIfExists(manifestPath);
+        }
+    }
+
+    private static void measure(String name, Loader loader) throws Exception {
+        System.gc();
+        long baseline = heapUsed();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        int loaded;
+        try {
+            loaded = loader.load();
+        } catch (Exception e) {
+            System.out.printf("%-28s failed: %s%n", name, e.getMessage());
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        System.out.printf("%-28s %6d streams, %6d ms, peak heap %6d MB above baseline%n",
+                name, loaded, elapsedMillis, Math.max(0, peak - baseline) / (1024 * 1024));
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    static void writeSyntheticManifest(Path path, int streams) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("---\nschemaVersion: \"1.1.0\"\nname: \"synthetic-manifest\"\nstreams:\n");
+            for (int i = 0; i < streams; i++) {
+                writer.write(String.format("  - groupId: \"org.example.group%d\"%n    artifactId: \"artifact-%d\"%n"
+                        + "    version: \"%d.%d.%d.Final-redhat-%05d\"%n", i / 100, i, i % 7, i % 13, i % 29, i % 1000));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        int load() throws Exception;
+    }
+}
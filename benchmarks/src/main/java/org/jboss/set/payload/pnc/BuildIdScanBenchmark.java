@@ -0,0 +1,60 @@
+package org.jboss.set.payload.pnc;
+
+import org.jboss.set.payload.fakes.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scanning of issue comments for PNC build links, over the comments of a generated dataset.
+ * <p>
+ * Run by {@code java -jar benchmarks/target/benchmarks.jar BuildIdScanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildIdScanBenchmark {
+
+    @Param({"1000"})
+    public int issues;
+
+    private List<String> comments;
+
+    @Setup
+    public void setup() {
+        comments = Dataset.generate(issues, Dataset.DEFAULT_SEED).getComments();
+    }
+
+    @Benchmark
+    public int scan() {
+        int found = 0;
+        for (String comment : comments) {
+            found += PncResolutionStrategy.findBuildIdsInText(comment).size();
+        }
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BuildIdScanBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
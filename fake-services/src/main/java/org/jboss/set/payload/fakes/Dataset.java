@@ -0,0 +1,242 @@
+package org.jboss.set.payload.fakes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.jboss.set.payload.fakes.FakeLlm.Answer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reproducible datasets served by the fake services, derived from the test manifest and the dependency groups of the
+ * project.
+ * <p>
+ * Component upgrade issues are generated by a seeded random generator, so the same parameters always produce the same
+ * issues, PNC builds and LLM answers. Issues are mixed roughly like in a real EAP release: most of them are resolved
+ * via PNC build links or by parsing the summary, some need the LLM, and a few are denied by their state. About a fifth
+ * of the upgrades aren't covered by the manifest.
+ */
+public final class Dataset {
+
+    public static final long DEFAULT_SEED = 42;
+
+    private static final String MANIFEST_RESOURCE = "manifest.yaml";
+    private static final String DEPENDENCY_GROUPS_RESOURCE = "dependency-groups.yaml";
+    private static final String UNCOVERED_VERSION = "999.0.0.Final-redhat-00001";
+    private static final String[] FILLER_LINES = {
+            "PR: https://github.com/jbossas/jboss-eap8/pull/1234",
+            "Upgrade has been reviewed, no API changes.",
+            "CVE fixes included, see the release notes: https://github.com/example/project/releases",
+            "CI run passed: https://ci.example.com/job/eap-8.1-testsuite/4567/",
+            "Moving to Resolved.",
+    };
+
+    private static Path manifestFile;
+    private static Path dependencyGroupsFile;
+
+    /**
+     * How the generated issue is meant to be resolved.
+     */
+    public enum Kind {
+        PNC_BUILD,
+        SUMMARY_PATTERN,
+        SUMMARY_LLM,
+        DENIED
+    }
+
+    /**
+     * @param comments bodies of the issue comments
+     */
+    public record IssueData(String key, String summary, String status, List<String> comments, Kind kind) {
+    }
+
+    private final List<IssueData> issues;
+    private final Map<String, Map<String, String>> builds;
+    private final Map<String, Answer> llmAnswers;
+
+    private Dataset(List<IssueData> issues, Map<String, Map<String, String>> builds,
+                             Map<String, Answer> llmAnswers) {
+        this.issues = Collections.unmodifiableList(issues);
+        this.builds = Collections.unmodifiableMap(builds);
+        this.llmAnswers = Collections.unmodifiableMap(llmAnswers);
+    }
+
+    /**
+     * @param issueCount number of issues to generate
+     * @param seed seed of the random generator
+     */
+    public static Dataset generate(int issueCount, long seed) {
+        Map<String, String> streams = loadManifestStreams();
+        List<String> gas = new ArrayList<>(streams.keySet());
+        List<Map.Entry<String, String>> components = loadComponents(streams);
+
+        Random random = new Random(seed);
+        List<IssueData> issues = new ArrayList<>(issueCount);
+        Map<String, Map<String, String>> builds = new HashMap<>();
+        Map<String, Answer> llmAnswers = new HashMap<>();
+        for (int i = 0; i < issueCount; i++) {
+            String key = "FAKE-" + (i + 1);
+            double kind = random.nextDouble();
+            boolean covered = random.nextDouble() < 0.8;
+            Map.Entry<String, String> component = components.get(random.nextInt(components.size()));
+            String version = covered ? streams.get(component.getValue()) : UNCOVERED_VERSION;
+            List<String> comments = fillerComments(random);
+
+            if (kind < 0.05) {
+                String summary = "Upgrade " + component.getKey() + " to " + version;
+                issues.add(new IssueData(key, summary, "Closed", comments, Kind.DENIED));
+            } else if (kind < 0.45) {
+                // Builds produce a run of consecutive manifest streams, like multi-module projects do.
+                String buildId = String.format("FAKE%05d", i + 1);
+                int start = random.nextInt(gas.size());
+                int size = 1 + random.nextInt(20);
+                Map<String, String> artifacts = new LinkedHashMap<>();
+                for (int j = 0; j < size; j++) {
+                    String ga = gas.get((start + j) % gas.size());
+                    artifacts.put(ga, covered || j > 0 ? streams.get(ga) : UNCOVERED_VERSION);
+                }
+                builds.put(buildId, artifacts);
+                comments.add(random.nextInt(comments.size() + 1),
+                        "Built in PNC: https://orch.psi.redhat.com/pnc-web/builds/" + buildId);
+                String summary = "Component upgrade of " + component.getKey() + " for the next release";
+                issues.add(new IssueData(key, summary, "Resolved", comments, Kind.PNC_BUILD));
+            } else if (kind < 0.85) {
+                String summary = "[8.1.0.GA] Upgrade " + component.getKey() + " to " + version;
+                issues.add(new IssueData(key, summary, "Resolved", comments, Kind.SUMMARY_PATTERN));
+            } else {
+                String summary = "Bump " + component.getKey() + " (target version " + version + ")";
+                llmAnswers.put(summary, new Answer(component.getKey(), version));
+                issues.add(new IssueData(key, summary, "Resolved", comments, Kind.SUMMARY_LLM));
+            }
+        }
+        return new Dataset(issues, builds, llmAnswers);
+    }
+
+    public List<IssueData> getIssues() {
+        return issues;
+    }
+
+    /**
+     * @return build ID -> GA -> version map of the artifacts built by the build
+     */
+    public Map<String, Map<String, String>> getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return summary -> answer the LLM is expected to give
+     */
+    public Map<String, Answer> getLlmAnswers() {
+        return llmAnswers;
+    }
+
+    /**
+     * @return bodies of all comments of all issues
+     */
+    public List<String> getComments() {
+        List<String> comments = new ArrayList<>();
+        issues.forEach(issue -> comments.addAll(issue.comments()));
+        return comments;
+    }
+
+    /**
+     * @return the test manifest, extracted to a temporary file
+     */
+    public static synchronized Path manifestFile() {
+        if (manifestFile == null) {
+            manifestFile = extract(MANIFEST_RESOURCE);
+        }
+        return manifestFile;
+    }
+
+    /**
+     * @return the project's dependency groups, extracted to a temporary file
+     */
+    public static synchronized Path dependencyGroupsFile() {
+        if (dependencyGroupsFile == null) {
+            dependencyGroupsFile = extract(DEPENDENCY_GROUPS_RESOURCE);
+        }
+        return dependencyGroupsFile;
+    }
+
+    private static List<String> fillerComments(Random random) {
+        List<String> comments = new ArrayList<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            StringBuilder body = new StringBuilder();
+            int lines = 1 + random.nextInt(3);
+            for (int j = 0; j < lines; j++) {
+                body.append(FILLER_LINES[random.nextInt(FILLER_LINES.length)]).append('\n');
+            }
+            comments.add(body.toString());
+        }
+        return comments;
+    }
+
+    /**
+     * @return GA -> version map of the manifest streams, in the manifest order
+     */
+    private static Map<String, String> loadManifestStreams() {
+        try {
+            JsonNode manifest = YAMLMapper.builder().build().readTree(manifestFile().toFile());
+            Map<String, String> streams = new LinkedHashMap<>();
+            for (JsonNode stream : manifest.path("streams")) {
+                if (stream.hasNonNull("version")) {
+                    streams.put(stream.path("groupId").asText() + ":" + stream.path("artifactId").asText(),
+                            stream.path("version").asText());
+                }
+            }
+            return streams;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return component name -> GA of one of its manifest streams, for the dependency groups present in the manifest
+     */
+    private static List<Map.Entry<String, String>> loadComponents(Map<String, String> streams) {
+        try {
+            JsonNode groups = YAMLMapper.builder().build().readTree(dependencyGroupsFile().toFile());
+            List<Map.Entry<String, String>> components = new ArrayList<>();
+            for (JsonNode group : groups) {
+                String name = group.path("aliases").has(0) ? group.path("aliases").get(0).asText()
+                        : group.path("component").asText();
+                for (JsonNode dependency : group.path("dependencies")) {
+                    if (streams.containsKey(dependency.asText())) {
+                        components.add(Map.entry(name, dependency.asText()));
+                        break;
+                    }
+                }
+            }
+            return components;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path extract(String resource) {
+        try (InputStream in = Dataset.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Resource " + resource + " not found");
+            }
+            Path file = Files.createTempFile("fake-services-", "-" + resource);
+            file.toFile().deleteOnExit();
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package org.jboss.set.payload.fakes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import org.jboss.set.payload.fakes.Dataset.IssueData;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the subset of the Jira REST API v2 used by the linker: JQL search, issue retrieval, commenting,
+ * transitions and issue update.
+ * <p>
+ * Issues can be addressed by their key or by their numeric ID, which is the number of the key. Changes made through
+ * the API are kept in memory and are visible in the following responses, the "updated" timestamp of the issue is
+ * advanced with each change. The JQL is not interpreted, every search returns all issues, except for "key in (...)"
+ * searches which return the listed issues.
+ */
+public class FakeJira extends FakeServer {
+
+    public static final String RESOLVE_TRANSITION_ID = "5";
+    public static final String RESOLVED = "Resolved";
+
+    private static final Pattern SEARCH_PATH = Pattern.compile("/rest/api/[^/]+/search/?");
+    private static final Pattern ISSUE_PATH = Pattern.compile("/rest/api/[^/]+/issue/([^/]+)(/[^/]+)?/?");
+    private static final Pattern KEY_IN = Pattern.compile("key\\s+in\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final ZonedDateTime CREATED = ZonedDateTime.of(2024, 11, 4, 10, 15, 30, 0, ZoneOffset.UTC);
+
+    private final Map<String, FakeIssue> issues = new LinkedHashMap<>();
+    private final Map<String, FakeIssue> issuesById = new ConcurrentHashMap<>();
+
+    public FakeJira(List<IssueData> issues) throws IOException {
+        this(issues, 0);
+    }
+
+    /**
+     * @param port port to listen on, zero for a random port
+     */
+    public FakeJira(List<IssueData> issues, int port) throws IOException {
+        super("jira", port);
+        for (IssueData issue : issues) {
+            FakeIssue fakeIssue = new FakeIssue(issue);
+            this.issues.put(issue.key(), fakeIssue);
+            issuesById.put(fakeIssue.id, fakeIssue);
+        }
+    }
+
+    /**
+     * @return current status of the issue, or null if there is no such issue
+     */
+    public String getStatus(String key) {
+        FakeIssue issue = issues.get(key);
+        if (issue == null) {
+            return null;
+        }
+        synchronized (issue) {
+            return issue.status;
+        }
+    }
+
+    /**
+     * @return bodies of the current comments of the issue, or an empty list if there is no such issue
+     */
+    public List<String> getComments(String key) {
+        FakeIssue issue = issues.get(key);
+        if (issue == null) {
+            return List.of();
+        }
+        synchronized (issue) {
+            return List.copyOf(issue.comments);
+        }
+    }
+
+    /**
+     * @return current labels of the issue, or an empty set if there is no such issue
+     */
+    public Set<String> getLabels(String key) {
+        FakeIssue issue = issues.get(key);
+        if (issue == null) {
+            return Set.of();
+        }
+        synchronized (issue) {
+            return Set.copyOf(issue.labels);
+        }
+    }
+
+    /**
+     * @return names of the current fix versions of the issue, or an empty set if there is no such issue
+     */
+    public Set<String> getFixVersions(String key) {
+        FakeIssue issue = issues.get(key);
+        if (issue == null) {
+            return Set.of();
+        }
+        synchronized (issue) {
+            return Set.copyOf(issue.fixVersions);
+        }
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (SEARCH_PATH.matcher(path).matches()) {
+            if ("POST".equals(method)) {
+                JsonNode body = readBody(exchange);
+                search(exchange, body.path("jql").asText(""), body.path("startAt").asInt(0),
+                        body.path("maxResults").asInt(50));
+            } else {
+                Map<String, String> parameters = queryParameters(exchange);
+                search(exchange, parameters.getOrDefault("jql", ""), intParameter(parameters, "startAt", 0),
+                        intParameter(parameters, "maxResults", 50));
+            }
+            return;
+        }
+
+        Matcher issueMatcher = ISSUE_PATH.matcher(path);
+        if (!issueMatcher.matches()) {
+            respond(exchange, 404, errorMessage("Not found: " + path));
+            return;
+        }
+        FakeIssue issue = findIssue(issueMatcher.group(1));
+        if (issue == null) {
+            respond(exchange, 404, errorMessage("Issue Does Not Exist"));
+            return;
+        }
+        String resource = Objects.requireNonNullElse(issueMatcher.group(2), "");
+        switch (method + " " + resource) {
+            case "GET " -> {
+                ObjectNode json = issueJson(issue);
+                json.set("names", names());
+                json.set("schema", schema());
+                respond(exchange, 200, json);
+            }
+            case "PUT " -> update(exchange, issue, readBody(exchange));
+            case "POST /comment" -> comment(exchange, issue, readBody(exchange));
+            case "GET /transitions" -> respond(exchange, 200, transitions());
+            case "POST /transitions" -> transition(exchange, issue, readBody(exchange));
+            default -> respond(exchange, 405, errorMessage("Method not allowed: " + method + " " + path));
+        }
+    }
+
+    private FakeIssue findIssue(String keyOrId) {
+        FakeIssue issue = issues.get(keyOrId);
+        return issue != null ? issue : issuesById.get(keyOrId);
+    }
+
+    private void search(HttpExchange exchange, String jql, int startAt, int maxResults) throws IOException {
+        List<FakeIssue> matching;
+        Matcher keyIn = KEY_IN.matcher(jql);
+        if (keyIn.find()) {
+            matching = Arrays.stream(keyIn.group(1).split(","))
+                    .map(key -> key.trim().replace("\"", ""))
+                    .distinct()
+                    .map(issues::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } else {
+            matching = List.copyOf(issues.values());
+        }
+
+        ObjectNode result = MAPPER.createObjectNode()
+                .put("expand", "names,schema")
+                .put("startAt", startAt)
+                .put("maxResults", maxResults)
+                .put("total", matching.size());
+        ArrayNode page = result.putArray("issues");
+        for (int i = startAt; i < Math.min(matching.size(), startAt + maxResults); i++) {
+            page.add(issueJson(matching.get(i)));
+        }
+        result.set("names", names());
+        result.set("schema", schema());
+        respond(exchange, 200, result);
+    }
+
+    private void update(HttpExchange exchange, FakeIssue issue, JsonNode body) throws IOException {
+        JsonNode fields = body.path("fields");
+        synchronized (issue) {
+            if (fields.has("labels")) {
+                issue.labels.clear();
+                fields.get("labels").forEach(label -> issue.labels.add(label.asText()));
+            }
+            if (fields.has("fixVersions")) {
+                issue.fixVersions.clear();
+                fields.get("fixVersions").forEach(version -> issue.fixVersions.add(version.path("name").asText()));
+            }
+            issue.touch();
+        }
+        respond(exchange, 204, null);
+    }
+
+    private void comment(HttpExchange exchange, FakeIssue issue, JsonNode body) throws IOException {
+        ObjectNode json;
+        synchronized (issue) {
+            issue.comments.add(body.path("body").asText(""));
+            issue.touch();
+            json = commentJson(issue, issue.comments.size() - 1);
+        }
+        respond(exchange, 201, json);
+    }
+
+    private void transition(HttpExchange exchange, FakeIssue issue, JsonNode body) throws IOException {
+        if (!RESOLVE_TRANSITION_ID.equals(body.path("transition").path("id").asText())) {
+            respond(exchange, 400, errorMessage("Transition is not valid for this issue"));
+            return;
+        }
+        synchronized (issue) {
+            issue.status = RESOLVED;
+            issue.touch();
+        }
+        respond(exchange, 204, null);
+    }
+
+    private ObjectNode issueJson(FakeIssue issue) {
+        URI base = getUri().resolve("rest/api/2/");
+        ObjectNode json = MAPPER.createObjectNode()
+                .put("expand", "names,schema")
+                .put("id", issue.id)
+                .put("self", base.resolve("issue/" + issue.id).toString())
+                .put("key", issue.key);
+
+        synchronized (issue) {
+            ObjectNode fields = json.putObject("fields");
+            fields.put("summary", issue.summary);
+            fields.putNull("description");
+            fields.putObject("issuetype")
+                    .put("self", base.resolve("issuetype/12").toString())
+                    .put("id", "12")
+                    .put("name", "Component Upgrade")
+                    .put("description", "")
+                    .put("iconUrl", base.resolve("issuetype/12/icon").toString())
+                    .put("subtask", false);
+            fields.putObject("status")
+                    .put("self", base.resolve("status/5").toString())
+                    .put("id", "5")
+                    .put("name", issue.status)
+                    .put("description", "")
+                    .put("iconUrl", base.resolve("status/5/icon").toString());
+            fields.putObject("resolution")
+                    .put("self", base.resolve("resolution/1").toString())
+                    .put("id", "1")
+                    .put("name", "Done")
+                    .put("description", "");
+            fields.putObject("project")
+                    .put("self", base.resolve("project/1").toString())
+                    .put("id", "1")
+                    .put("key", "FAKE")
+                    .put("name", "Fake Project");
+            fields.put("created", TIMESTAMP_FORMAT.format(CREATED));
+            fields.put("updated", TIMESTAMP_FORMAT.format(CREATED.plusSeconds(issue.revision)));
+            ArrayNode labels = fields.putArray("labels");
+            issue.labels.forEach(labels::add);
+            ArrayNode fixVersions = fields.putArray("fixVersions");
+            issue.fixVersions.forEach(version -> fixVersions.addObject()
+                    .put("self", base.resolve("version/" + Math.abs(version.hashCode())).toString())
+                    .put("id", String.valueOf(Math.abs(version.hashCode())))
+                    .put("name", version)
+                    .put("archived", false)
+                    .put("released", false));
+            fields.putArray("issuelinks");
+
+            ArrayNode comments = MAPPER.createArrayNode();
+            for (int i = 0; i < issue.comments.size(); i++) {
+                comments.add(commentJson(issue, i));
+            }
+            fields.putObject("comment")
+                    .put("startAt", 0)
+                    .put("maxResults", comments.size())
+                    .put("total", comments.size())
+                    .set("comments", comments);
+        }
+        return json;
+    }
+
+    private ObjectNode commentJson(FakeIssue issue, int index) {
+        URI base = getUri().resolve("rest/api/2/");
+        String timestamp = TIMESTAMP_FORMAT.format(CREATED);
+        return MAPPER.createObjectNode()
+                .put("self", base.resolve("issue/" + issue.id + "/comment/" + (index + 1)).toString())
+                .put("id", String.valueOf(index + 1))
+                .put("body", issue.comments.get(index))
+                .put("created", timestamp)
+                .put("updated", timestamp);
+    }
+
+    private static ObjectNode transitions() {
+        ObjectNode json = MAPPER.createObjectNode().put("expand", "transitions");
+        ObjectNode transition = json.putArray("transitions").addObject()
+                .put("id", RESOLVE_TRANSITION_ID)
+                .put("name", "Resolve Issue");
+        transition.putObject("to")
+                .put("id", "5")
+                .put("name", RESOLVED);
+        transition.putObject("fields");
+        return json;
+    }
+
+    private static ObjectNode names() {
+        return MAPPER.createObjectNode().put("summary", "Summary");
+    }
+
+    private static ObjectNode schema() {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.putObject("summary").put("type", "string").put("system", "summary");
+        return schema;
+    }
+
+    private static ObjectNode errorMessage(String message) {
+        ObjectNode error = MAPPER.createObjectNode();
+        error.putArray("errorMessages").add(message);
+        error.putObject("errors");
+        return error;
+    }
+
+    /**
+     * Mutable state of an issue, guarded by the instance lock.
+     */
+    private static class FakeIssue {
+        private final String key;
+        private final String id;
+        private final String summary;
+        private final List<String> comments;
+        private final Set<String> labels = new LinkedHashSet<>();
+        private final Set<String> fixVersions = new LinkedHashSet<>();
+        private String status;
+        private long revision;
+
+        private FakeIssue(IssueData data) {
+            key = data.key();
+            id = key.substring(key.indexOf('-') + 1);
+            summary = data.summary();
+            status = data.status();
+            comments = new ArrayList<>(data.comments());
+        }
+
+        private void touch() {
+            revision++;
+        }
+    }
+}
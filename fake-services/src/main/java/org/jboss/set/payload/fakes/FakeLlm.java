@@ -0,0 +1,106 @@
+package org.jboss.set.payload.fakes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for an OpenAI compatible chat completions endpoint, answering the component upgrade prompts with scripted
+ * answers. Both the single summary and the numbered batch prompts are understood.
+ */
+public class FakeLlm extends FakeServer {
+
+    /**
+     * Scripted answer of the LLM.
+     */
+    public record Answer(String component, String targetVersion) {
+    }
+
+    private static final String SUMMARY_MARKER = "Summary: ";
+    private static final String SUMMARIES_MARKER = "Summaries:\n";
+    private static final Pattern NUMBERED_SUMMARY = Pattern.compile("^(\\d+)\\. (.*)$", Pattern.MULTILINE);
+
+    private final Function<String, Answer> answers;
+
+    /**
+     * @param answers answer for given summary, null if the summary isn't a component upgrade
+     */
+    public FakeLlm(Function<String, Answer> answers) throws IOException {
+        this(answers, 0);
+    }
+
+    /**
+     * @param answers answer for given summary, null if the summary isn't a component upgrade
+     * @param port port to listen on, zero for a random port
+     */
+    public FakeLlm(Function<String, Answer> answers, int port) throws IOException {
+        super("llm", port);
+        this.answers = answers;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().endsWith("/chat/completions")) {
+            respond(exchange, 404, MAPPER.createObjectNode().put("error", "Not found"));
+            return;
+        }
+        JsonNode request = readBody(exchange);
+        String prompt = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                prompt = message.path("content").asText();
+            }
+        }
+
+        String content;
+        int batchStart = prompt.indexOf(SUMMARIES_MARKER);
+        if (batchStart >= 0) {
+            ArrayNode array = MAPPER.createArrayNode();
+            Matcher matcher = NUMBERED_SUMMARY.matcher(prompt.substring(batchStart + SUMMARIES_MARKER.length()));
+            while (matcher.find()) {
+                answer(array.addObject().put("index", Integer.parseInt(matcher.group(1))), matcher.group(2));
+            }
+            content = MAPPER.writeValueAsString(array);
+        } else {
+            int summaryStart = prompt.indexOf(SUMMARY_MARKER);
+            String summary = summaryStart >= 0 ? prompt.substring(summaryStart + SUMMARY_MARKER.length()) : prompt;
+            content = MAPPER.writeValueAsString(answer(MAPPER.createObjectNode(), summary));
+        }
+        respond(exchange, 200, completion(request.path("model").asText("fake"), content));
+    }
+
+    private ObjectNode answer(ObjectNode node, String summary) {
+        Answer answer = answers.apply(summary.trim());
+        if (answer != null) {
+            node.put("component", answer.component()).put("targetVersion", answer.targetVersion());
+        } else {
+            node.putNull("component").putNull("targetVersion");
+        }
+        return node;
+    }
+
+    private static ObjectNode completion(String model, String content) {
+        ObjectNode completion = MAPPER.createObjectNode()
+                .put("id", "chatcmpl-fake")
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject()
+                .put("index", 0)
+                .put("finish_reason", "stop");
+        choice.putObject("message")
+                .put("role", "assistant")
+                .put("content", content);
+        completion.putObject("usage")
+                .put("prompt_tokens", 0)
+                .put("completion_tokens", 0)
+                .put("total_tokens", 0);
+        return completion;
+    }
+}
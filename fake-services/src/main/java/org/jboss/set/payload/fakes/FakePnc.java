@@ -0,0 +1,74 @@
+package org.jboss.set.payload.fakes;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the PNC REST API endpoint listing artifacts built by a build.
+ */
+public class FakePnc extends FakeServer {
+
+    private static final Pattern BUILT_ARTIFACTS_PATH = Pattern.compile(".*/builds/([^/]+)/artifacts/built/?");
+
+    private final Map<String, Map<String, String>> builds;
+
+    /**
+     * @param builds build ID -> GA -> version map of the artifacts built by the build
+     */
+    public FakePnc(Map<String, Map<String, String>> builds) throws IOException {
+        this(builds, 0);
+    }
+
+    /**
+     * @param builds build ID -> GA -> version map of the artifacts built by the build
+     * @param port port to listen on, zero for a random port
+     */
+    public FakePnc(Map<String, Map<String, String>> builds, int port) throws IOException {
+        super("pnc", port);
+        this.builds = builds;
+    }
+
+    @Override
+    protected void handle(HttpExchange exchange) throws IOException {
+        Matcher matcher = BUILT_ARTIFACTS_PATH.matcher(exchange.getRequestURI().getPath());
+        if (!matcher.matches()) {
+            respond(exchange, 404, MAPPER.createObjectNode().put("errorMessage", "Not found"));
+            return;
+        }
+        Map<String, String> artifacts = builds.get(matcher.group(1));
+        if (artifacts == null) {
+            respond(exchange, 404, MAPPER.createObjectNode().put("errorMessage", "Build not found"));
+            return;
+        }
+
+        Map<String, String> parameters = queryParameters(exchange);
+        int pageIndex = intParameter(parameters, "pageIndex", 0);
+        int pageSize = Math.max(1, intParameter(parameters, "pageSize", 50));
+        List<Map.Entry<String, String>> entries = new ArrayList<>(artifacts.entrySet());
+
+        ObjectNode page = MAPPER.createObjectNode()
+                .put("pageIndex", pageIndex)
+                .put("pageSize", pageSize)
+                .put("totalPages", (entries.size() + pageSize - 1) / pageSize)
+                .put("totalHits", entries.size());
+        ArrayNode content = page.putArray("content");
+        for (int i = pageIndex * pageSize; i < Math.min(entries.size(), (pageIndex + 1) * pageSize); i++) {
+            String ga = entries.get(i).getKey();
+            String version = entries.get(i).getValue();
+            String artifactId = ga.substring(ga.indexOf(':') + 1);
+            content.addObject()
+                    .put("id", String.valueOf(i + 1))
+                    .put("identifier", ga + ":jar:" + version)
+                    .put("filename", artifactId + "-" + version + ".jar");
+        }
+        respond(exchange, 200, page);
+    }
+}
@@ -0,0 +1,187 @@
+package org.jboss.set.payload.fakes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process HTTP server standing in for a remote service. Listens on the loopback interface.
+ * <p>
+ * Every request can be delayed, and answered by HTTP 503 or HTTP 429 instead of the regular response, as configured
+ * by {@link #setFaults(Faults)}. Faults can be changed while the server is running.
+ */
+public abstract class FakeServer implements Closeable {
+
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private volatile Faults faults = Faults.NONE;
+
+    /**
+     * @param name name of the service, used in the thread names
+     * @param port port to listen on, zero for a random port
+     */
+    protected FakeServer(String name, int port) throws IOException {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-" + name + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                if (injectFault(exchange)) {
+                    return;
+                }
+                handle(exchange);
+            } catch (InterruptedIOException e) {
+                // The server is closing.
+            } catch (RuntimeException e) {
+                respond(exchange, 500, MAPPER.createObjectNode().put("error", e.toString()));
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * @return base URI of the server, ending with a slash
+     */
+    public URI getUri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + "/");
+    }
+
+    public Faults getFaults() {
+        return faults;
+    }
+
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+    }
+
+    /**
+     * @return number of requests received so far, including the ones answered by an injected fault
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return number of requests answered by an injected HTTP 503
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return number of requests answered by an injected HTTP 429
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    protected abstract void handle(HttpExchange exchange) throws IOException;
+
+    /**
+     * @return true if the request has been answered by an injected fault
+     */
+    private boolean injectFault(HttpExchange exchange) throws IOException {
+        Faults faults = this.faults;
+        long latency = faults.nextLatencyMillis();
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        switch (faults.nextOutcome()) {
+            case THROTTLE -> {
+                throttledCount.incrementAndGet();
+                if (faults.retryAfterSeconds() >= 0) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(faults.retryAfterSeconds()));
+                }
+                respond(exchange, 429, MAPPER.createObjectNode().put("error", "Rate limit exceeded"));
+                return true;
+            }
+            case ERROR -> {
+                errorCount.incrementAndGet();
+                respond(exchange, 503, MAPPER.createObjectNode().put("error", "Service unavailable"));
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    protected static void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    protected static JsonNode readBody(HttpExchange exchange) throws IOException {
+        return MAPPER.readTree(exchange.getRequestBody());
+    }
+
+    protected static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    protected static int intParameter(Map<String, String> parameters, String name, int defaultValue) {
+        String value = parameters.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
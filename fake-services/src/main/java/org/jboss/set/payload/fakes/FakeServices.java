@@ -0,0 +1,153 @@
+package org.jboss.set.payload.fakes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Fake Jira, PNC and LLM services serving one dataset, for load testing the linker without touching the production
+ * services.
+ * <p>
+ * Can be embedded in a test or a benchmark, or run standalone:
+ * <pre>
+ * java -jar fake-services/target/fake-services.jar [--issues 500] [--seed 42] [--faults latency=20-100,errors=0.01]
+ *     [--jira-faults ...] [--pnc-faults ...] [--llm-faults ...] [--jira-port 0] [--pnc-port 0] [--llm-port 0]
+ * </pre>
+ * The linker is pointed at the services by the configuration printed on startup, see {@link #getConfiguration()}.
+ */
+public class FakeServices implements Closeable {
+
+    private final Dataset dataset;
+    private final FakeJira jira;
+    private final FakePnc pnc;
+    private final FakeLlm llm;
+
+    /**
+     * Starts the services on random ports.
+     */
+    public FakeServices(Dataset dataset) throws IOException {
+        this(dataset, 0, 0, 0);
+    }
+
+    public FakeServices(Dataset dataset, int jiraPort, int pncPort, int llmPort) throws IOException {
+        this.dataset = dataset;
+        jira = new FakeJira(dataset.getIssues(), jiraPort);
+        try {
+            pnc = new FakePnc(dataset.getBuilds(), pncPort);
+            try {
+                llm = new FakeLlm(dataset.getLlmAnswers()::get, llmPort);
+            } catch (IOException | RuntimeException e) {
+                pnc.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            jira.close();
+            throw e;
+        }
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    public FakeJira getJira() {
+        return jira;
+    }
+
+    public FakePnc getPnc() {
+        return pnc;
+    }
+
+    public FakeLlm getLlm() {
+        return llm;
+    }
+
+    /**
+     * Sets the same faults to all services.
+     */
+    public void setFaults(Faults faults) {
+        jira.setFaults(faults);
+        pnc.setFaults(faults);
+        llm.setFaults(faults);
+    }
+
+    /**
+     * @return linker configuration properties pointing to the services
+     */
+    public Map<String, String> getConfiguration() {
+        Map<String, String> configuration = new LinkedHashMap<>();
+        configuration.put("jira.url", jira.getUri().toString());
+        configuration.put("jira.token", "fake");
+        configuration.put("pnc.builds_api_url", pnc.getUri().resolve("pnc-rest/v2/builds").toString());
+        configuration.put("llm.base_url", llm.getUri().resolve("v1").toString());
+        configuration.put("llm.model_name", "fake");
+        return configuration;
+    }
+
+    @Override
+    public void close() {
+        jira.close();
+        pnc.close();
+        llm.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int issues = 500;
+        long seed = Dataset.DEFAULT_SEED;
+        int jiraPort = 0;
+        int pncPort = 0;
+        int llmPort = 0;
+        Faults faults = Faults.NONE;
+        Faults jiraFaults = null;
+        Faults pncFaults = null;
+        Faults llmFaults = null;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of " + args[i]);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--issues" -> issues = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--jira-port" -> jiraPort = Integer.parseInt(value);
+                case "--pnc-port" -> pncPort = Integer.parseInt(value);
+                case "--llm-port" -> llmPort = Integer.parseInt(value);
+                case "--faults" -> faults = Faults.parse(value);
+                case "--jira-faults" -> jiraFaults = Faults.parse(value);
+                case "--pnc-faults" -> pncFaults = Faults.parse(value);
+                case "--llm-faults" -> llmFaults = Faults.parse(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+
+        FakeServices services = new FakeServices(Dataset.generate(issues, seed), jiraPort, pncPort, llmPort);
+        services.setFaults(faults);
+        if (jiraFaults != null) {
+            services.getJira().setFaults(jiraFaults);
+        }
+        if (pncFaults != null) {
+            services.getPnc().setFaults(pncFaults);
+        }
+        if (llmFaults != null) {
+            services.getLlm().setFaults(llmFaults);
+        }
+
+        System.out.printf("Serving %d issues, %d PNC builds and %d LLM answers. Point the linker at them by:%n%n",
+                issues, services.getDataset().getBuilds().size(), services.getDataset().getLlmAnswers().size());
+        services.getConfiguration().forEach((key, value) -> System.out.println(key + "=" + value));
+        System.out.printf("%nManifest: %s%nDependency groups: %s%n", Dataset.manifestFile(),
+                Dataset.dependencyGroupsFile());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.printf("Served Jira: %d requests, PNC: %d requests, LLM: %d requests.%n",
+                    services.getJira().getRequestCount(), services.getPnc().getRequestCount(),
+                    services.getLlm().getRequestCount());
+            services.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+}
@@ -0,0 +1,85 @@
+package org.jboss.set.payload.fakes;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Misbehavior injected into the responses of a fake service.
+ *
+ * @param minLatencyMillis minimal delay before a request is answered
+ * @param maxLatencyMillis maximal delay before a request is answered, the actual delay is uniformly distributed
+ * @param errorRate fraction of requests answered by HTTP 503
+ * @param throttleRate fraction of requests answered by HTTP 429
+ * @param retryAfterSeconds value of the Retry-After header of the 429 responses, negative to omit the header
+ */
+public record Faults(long minLatencyMillis, long maxLatencyMillis, double errorRate, double throttleRate,
+                     int retryAfterSeconds) {
+
+    public static final Faults NONE = new Faults(0, 0, 0, 0, -1);
+
+    /**
+     * What happens to a single request.
+     */
+    public enum Outcome {
+        ANSWER,
+        ERROR,
+        THROTTLE
+    }
+
+    public Faults {
+        if (minLatencyMillis < 0 || maxLatencyMillis < minLatencyMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minLatencyMillis + "-" + maxLatencyMillis);
+        }
+        if (errorRate < 0 || throttleRate < 0 || errorRate + throttleRate > 1) {
+            throw new IllegalArgumentException("Invalid error rate " + errorRate + " or throttle rate " + throttleRate);
+        }
+    }
+
+    /**
+     * Parses a comma-separated specification like {@code latency=50-200,errors=0.01,throttle=0.05,retry_after=2}.
+     * Latency can be given as a single number of milliseconds too. Omitted items don't inject anything.
+     */
+    public static Faults parse(String spec) {
+        long minLatency = 0;
+        long maxLatency = 0;
+        double errorRate = 0;
+        double throttleRate = 0;
+        int retryAfter = -1;
+        if (spec != null && !spec.isBlank()) {
+            for (String item : spec.split(",")) {
+                String[] keyValue = item.trim().split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid fault specification: " + item);
+                }
+                String value = keyValue[1].trim();
+                switch (keyValue[0].trim()) {
+                    case "latency" -> {
+                        String[] range = value.split("-", 2);
+                        minLatency = Long.parseLong(range[0].trim());
+                        maxLatency = range.length > 1 ? Long.parseLong(range[1].trim()) : minLatency;
+                    }
+                    case "errors" -> errorRate = Double.parseDouble(value);
+                    case "throttle" -> throttleRate = Double.parseDouble(value);
+                    case "retry_after" -> retryAfter = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown fault: " + keyValue[0]);
+                }
+            }
+        }
+        return new Faults(minLatency, maxLatency, errorRate, throttleRate, retryAfter);
+    }
+
+    long nextLatencyMillis() {
+        return minLatencyMillis == maxLatencyMillis ? minLatencyMillis
+                : ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1);
+    }
+
+    Outcome nextOutcome() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            return Outcome.THROTTLE;
+        }
+        if (roll < throttleRate + errorRate) {
+            return Outcome.ERROR;
+        }
+        return Outcome.ANSWER;
+    }
+}
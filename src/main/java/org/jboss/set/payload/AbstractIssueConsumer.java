@@ -1,14 +1,11 @@
 package org.jboss.set.payload;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
-import com.atlassian.jira.rest.client.api.domain.IssueLink;
-import com.atlassian.jira.rest.client.api.domain.IssueLinkType;
 import org.jboss.set.payload.jira.FaultTolerantIssueClient;
+import org.jboss.set.payload.jira.IssueLinks;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.StreamSupport;
 
 public abstract class AbstractIssueConsumer implements IssueConsumer {
 
@@ -17,9 +14,6 @@ public abstract class AbstractIssueConsumer implements IssueConsumer {
     public static final Predicate<Issue> INCLUDE_NON_VERIFIED = i -> !"Verified".equals(i.getStatus().getName());
     public static final Predicate<Issue> INCLUDE_RESOLVED = i -> "Resolved".equals(i.getStatus().getName());
 
-
-    private static final String INCORPORATES = "Incorporates";
-
     protected final FaultTolerantIssueClient issueClient;
     private final Predicate<Issue> componentUpgradeInclusionPredicate;
     private final Predicate<Issue> incorporatedInclusionPredicate;
@@ -35,9 +29,20 @@ public abstract class AbstractIssueConsumer implements IssueConsumer {
 
     @Override
     public void accept(Issue issue) {
+        accept(issue, List.of());
+    }
+
+    @Override
+    public void accept(Issue issue, List<String> notes) {
         try {
             if (componentUpgradeInclusionPredicate.test(issue)) {
                 componentUpgradeIssue(issue, manifestReference);
+                for (String note : notes) {
+                    componentUpgradeNote(issue, note);
+                }
+            }
+            if (incorporatedInclusionPredicate == INCLUDE_NONE) {
+                return; // No need to retrieve incorporated issues.
             }
             for (String key: filterIncorporatedIssueCodes(issue)) {
                 Issue incorporatedIssue = issueClient.getIssue(key);
@@ -50,15 +55,15 @@ public abstract class AbstractIssueConsumer implements IssueConsumer {
         }
     }
 
+    /**
+     * Called after {@link #componentUpgradeIssue(Issue, String)} with each note of the resolution strategies about the
+     * issue. Does nothing by default.
+     */
+    protected void componentUpgradeNote(Issue issue, String note) throws Exception {
+    }
+
     protected List<String> filterIncorporatedIssueCodes(Issue issue) {
-        if (issue.getIssueLinks() != null) {
-            return StreamSupport.stream(issue.getIssueLinks().spliterator(), false)
-                    .filter(l -> INCORPORATES.equals(l.getIssueLinkType().getName())
-                            && IssueLinkType.Direction.OUTBOUND.equals(l.getIssueLinkType().getDirection()))
-                    .map(IssueLink::getTargetIssueKey)
-                    .toList();
-        }
-        return Collections.emptyList();
+        return IssueLinks.incorporatedIssueKeys(issue);
     }
 
 }
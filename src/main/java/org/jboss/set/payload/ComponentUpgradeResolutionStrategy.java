@@ -2,9 +2,50 @@ package org.jboss.set.payload;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-public interface ComponentUpgradeResolutionStrategy extends Function<Issue, Boolean> {
+/**
+ * Decides whether the component upgrade of an issue is covered by the manifests.
+ */
+public interface ComponentUpgradeResolutionStrategy extends Function<Issue, Verdict> {
 
+    /**
+     * Called with each page of issues before they are resolved, so that the strategy can start preparing the data it
+     * needs for all of them at once. Must not block.
+     */
+    default void prefetch(Collection<Issue> issues) {
+    }
+
+    /**
+     * Resolves the issue on given executor. Unlike with {@link CompletableFuture#supplyAsync}, cancelling the returned
+     * future interrupts the thread running the strategy, so that no more requests are made on its behalf.
+     */
+    default CompletableFuture<Verdict> applyAsync(Issue issue, ExecutorService executor) {
+        CompletableFuture<Verdict> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(apply(issue));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((verdict, e) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return name the strategy is recorded under in the verdict store
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
 }
@@ -5,9 +5,37 @@ public interface ConfigKeys {
     String JIRA_URL = "jira.url";
     String JIRA_QUERY = "jira.query";
     String JIRA_REQUEST_FREQUENCY = "jira.request_frequency";
+    String JIRA_REQUEST_BURST = "jira.request_burst";
+    String JIRA_MAX_IN_FLIGHT = "jira.max_in_flight";
+    String JIRA_THROTTLED_REQUEST_FREQUENCY = "jira.throttled_request_frequency";
+    String JIRA_RETRY_MAX_ATTEMPTS = "jira.retry.max_attempts";
+    String JIRA_RETRY_INITIAL_BACKOFF = "jira.retry.initial_backoff";
+    String JIRA_RETRY_MAX_BACKOFF = "jira.retry.max_backoff";
+    String JIRA_RETRY_DEADLINE = "jira.retry.deadline";
     String JIRA_DRY_MODE = "jira.dry_mode";
+    String JIRA_BULK_FETCH = "jira.bulk_fetch";
+    String JIRA_SEARCH_PAGE_SIZE = "jira.search_page_size";
     String PNC_BUILDS_API_URL = "pnc.builds_api_url";
+    String PNC_CACHE_MAX_SIZE = "pnc.cache_max_size";
+    String PNC_MAX_CONCURRENT_REQUESTS = "pnc.max_concurrent_requests";
     String LLM_BASE_URL = "llm.base_url";
     String LLM_TIMEOUT = "llm.timeout";
+    String LLM_MODEL_NAME = "llm.model_name";
+    String LLM_BATCH_SIZE = "llm.batch_size";
+    String LLM_MAX_CONCURRENT_BATCHES = "llm.max_concurrent_batches";
     String DEPENDENCY_GROUPS_FILE = "dependency_groups_file";
+    String DEPENDENCY_GROUPS_FUZZY_MATCH_THRESHOLD = "dependency_groups_fuzzy_match_threshold";
+    String DEPENDENCY_GROUPS_FUZZY_ACCEPT_THRESHOLD = "dependency_groups_fuzzy_accept_threshold";
+    String RESOLUTION_SPECULATIVE = "resolution.speculative";
+    String PROCESSING_WORKERS = "processing.workers";
+    String CACHE_DIR = "cache.dir";
+    String VERDICT_STORE_DIR = "verdict_store.dir";
+    String DIFF_PREVIOUS_MANIFEST = "diff.previous_manifest";
+    String DIFF_PREVIOUS_MANIFEST_REFERENCE = "diff.previous_manifest_reference";
+    String CASSETTE_MODE = "cassette.mode";
+    String CASSETTE_FILE = "cassette.file";
+    String CASSETTE_REPLAY_LATENCY = "cassette.replay_latency";
+    String METRICS_FILE = "metrics.file";
+    String JFR_EVENTS = "jfr.events";
+    String JFR_FILE = "jfr.file";
 }
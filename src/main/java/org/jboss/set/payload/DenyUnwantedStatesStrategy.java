@@ -21,15 +21,15 @@ public class DenyUnwantedStatesStrategy implements ComponentUpgradeResolutionStr
     private static final String[] COMPLETED_STATES = new String[] {READY_FOR_QA, VERIFIED, CLOSED};
 
     @Override
-    public Boolean apply(Issue issue) {
+    public Verdict apply(Issue issue) {
         if (Arrays.stream(COMPLETED_STATES).anyMatch(status -> issue.getStatus().getName().equals(status))) {
             logger.infof("%s: Denying issue in a completed state: %s", issue.getKey(), issue.getStatus().getName());
-            return false;
+            return Verdict.uniform(false);
         }
         if (issue.getResolution() != null && !DONE.equals(issue.getResolution().getName())) {
             logger.infof("%s: Denying because of resolution %s", issue.getKey(), issue.getResolution().getName());
-            return false;
+            return Verdict.uniform(false);
         }
-        return null; // Unknown
+        return Verdict.UNKNOWN;
     }
 }
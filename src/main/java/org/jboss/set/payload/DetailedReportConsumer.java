@@ -25,6 +25,11 @@ public class DetailedReportConsumer extends AbstractReportConsumer {
         writer.write(line);
     }
 
+    @Override
+    protected void componentUpgradeNote(Issue issue, String note) throws IOException {
+        writer.write("  Note: " + note + System.lineSeparator());
+    }
+
     @Override
     public void incorporatedIssue(Issue issue, Issue componentUpgrade, String manifestReference) throws IOException {
         String line = "  " + line(issue);
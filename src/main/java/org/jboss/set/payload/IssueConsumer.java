@@ -4,10 +4,19 @@ import com.atlassian.jira.rest.client.api.domain.Issue;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.List;
 import java.util.function.Consumer;
 
 public interface IssueConsumer extends Consumer<Issue>, Closeable {
 
+    /**
+     * Like {@link #accept(Object)}, with notes of the resolution strategies about the issue, e.g. the dependency group
+     * its component was matched to by a similar name. Consumers that don't report notes ignore them.
+     */
+    default void accept(Issue issue, List<String> notes) {
+        accept(issue);
+    }
+
     void componentUpgradeIssue(Issue issue, String manifestReference) throws Exception;
 
     void incorporatedIssue(Issue issue, Issue componentUpgrade, String manifestReference) throws Exception;
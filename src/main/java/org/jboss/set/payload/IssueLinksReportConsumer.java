@@ -11,10 +11,11 @@ import java.util.function.Predicate;
 public class IssueLinksReportConsumer extends AbstractReportConsumer {
 
     private final URI jiraUri;
+    private final boolean writeNotes;
 
     public IssueLinksReportConsumer(FaultTolerantIssueClient issueClient, File file, URI jiraUri, String manifestReference)
             throws IOException {
-        this(issueClient, file, INCLUDE_RESOLVED, INCLUDE_RESOLVED, jiraUri, manifestReference);
+        this(issueClient, file, INCLUDE_RESOLVED, INCLUDE_RESOLVED, jiraUri, manifestReference, false);
     }
 
     public IssueLinksReportConsumer(FaultTolerantIssueClient issueClient, File file,
@@ -22,8 +23,22 @@ public class IssueLinksReportConsumer extends AbstractReportConsumer {
                                     Predicate<Issue> incorporatedInclusionPredicate,
                                     URI jiraUri, String manifestReference)
             throws IOException {
+        this(issueClient, file, componentUpgradeInclusionPredicate, incorporatedInclusionPredicate, jiraUri,
+                manifestReference, false);
+    }
+
+    /**
+     * @param writeNotes if true, notes of the resolution strategies are written as comment lines under the issue link,
+     *                   e.g. for the people going through the check-manually report
+     */
+    public IssueLinksReportConsumer(FaultTolerantIssueClient issueClient, File file,
+                                    Predicate<Issue> componentUpgradeInclusionPredicate,
+                                    Predicate<Issue> incorporatedInclusionPredicate,
+                                    URI jiraUri, String manifestReference, boolean writeNotes)
+            throws IOException {
         super(issueClient, file, componentUpgradeInclusionPredicate, incorporatedInclusionPredicate, manifestReference);
         this.jiraUri = jiraUri;
+        this.writeNotes = writeNotes;
     }
 
     @Override
@@ -31,6 +46,13 @@ public class IssueLinksReportConsumer extends AbstractReportConsumer {
         writer.write(line(issue));
     }
 
+    @Override
+    protected void componentUpgradeNote(Issue issue, String note) throws IOException {
+        if (writeNotes) {
+            writer.write("# " + note + System.lineSeparator());
+        }
+    }
+
     @Override
     public void incorporatedIssue(Issue issue, Issue componentUpgrade, String manifestReference) throws IOException {
         writer.write(line(issue));
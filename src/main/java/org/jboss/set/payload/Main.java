@@ -2,16 +2,30 @@ package org.jboss.set.payload;
 
 import com.atlassian.jira.rest.client.api.JiraRestClient;
 import com.atlassian.jira.rest.client.api.domain.Issue;
-import com.atlassian.jira.rest.client.api.domain.SearchResult;
-import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
+import com.atlassian.jira.rest.client.api.AuthenticationHandler;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousHttpClientFactory;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClient;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
 import io.smallrye.config.SmallRyeConfigBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.config.Config;
 import org.jboss.logging.Logger;
+import org.jboss.set.payload.cassette.CassetteSession;
 import org.jboss.set.payload.dependencygroups.StaticDependencyGroupsResolutionStrategy;
 import org.jboss.set.payload.jira.FaultTolerantIssueClient;
+import org.jboss.set.payload.jira.IssueCache;
+import org.jboss.set.payload.jira.IssueLinks;
+import org.jboss.set.payload.jira.PersistentIssueCache;
+import org.jboss.set.payload.jira.RateLimiter;
+import org.jboss.set.payload.jira.ResponseCapture;
+import org.jboss.set.payload.jira.RetryPolicy;
+import org.jboss.set.payload.jira.SearchPager;
 import org.jboss.set.payload.manifest.ManifestChecker;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.Metrics;
 import org.jboss.set.payload.pnc.PncResolutionStrategy;
+import org.jboss.set.payload.verdicts.VerdictRecord;
+import org.jboss.set.payload.verdicts.VerdictStore;
 
 import java.io.Closeable;
 import java.io.File;
@@ -22,21 +36,71 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class Main implements Closeable, Runnable {
 
     private static final Logger logger = Logger.getLogger(Main.class);
 
+    /**
+     * Issue fields retrieved by search in the bulk fetch mode. Comments are not navigable, so they need to be listed
+     * explicitly.
+     */
+    private static final Set<String> BULK_FETCH_FIELDS = Set.of("*navigable", "comment");
+    private static final String ISSUE_CACHE_FILE = "jira-issues.json.gz";
+
     private final JiraRestClient jiraClient;
     private final FaultTolerantIssueClient issueClient;
+    private final IssueCache issueCache;
     private final Config config;
 
     private final List<ComponentUpgradeResolutionStrategy> resolutionStrategies = new ArrayList<>();
-    private final List<IssueConsumer> verifiedIssuesConsumers = new ArrayList<>();
-    private final IssueConsumer toCheckManually;
+    private final List<ManifestReports> manifestReports = new ArrayList<>();
     private final URI jiraUri;
+    private final int workers;
+    private final boolean bulkFetch;
+    private final int searchPageSize;
+    /**
+     * Executor running the strategies concurrently in the speculative mode, or null.
+     */
+    private final ExecutorService speculativeExecutor;
+    /**
+     * Store the verdicts are recorded in, or null.
+     */
+    private final VerdictStore verdictStore;
+    /**
+     * Reference of the manifest whose verdicts are carried forward in the diff mode.
+     */
+    private final String previousManifestReference;
+    /**
+     * GAs of the streams changed since the previous manifest, null unless in the diff mode.
+     */
+    private final Set<String> changedStreams;
+    /**
+     * File the run metrics are exported to, or null.
+     */
+    private final Path metricsFile;
+    /**
+     * Proxies recording or replaying the remote service interactions, or null.
+     */
+    private final CassetteSession cassetteSession;
+    /**
+     * Flight Recorder recording of the run, or null.
+     */
+    private final FlightRecording flightRecording;
 
     public static void main(String[] args) throws Exception {
         if (args.length != 4 && args.length != 5) {
@@ -45,7 +109,16 @@ public class Main implements Closeable, Runnable {
             System.exit(1);
         }
 
-        try (Main main = new Main(Path.of(args[0]), args[1], args[2], args[3], args[4])) {
+        List<Path> manifestPaths = parseCommaSeparatedOrderedList(args[0]).stream().map(Path::of).toList();
+        List<String> manifestReferences = parseCommaSeparatedOrderedList(args[1]);
+        if (manifestPaths.isEmpty() || manifestPaths.size() != manifestReferences.size()
+                || manifestReferences.stream().map(Main::reportSuffix).distinct().count() != manifestReferences.size()) {
+            logger.error("Each manifest file needs a distinct manifest reference");
+            usage();
+            System.exit(1);
+        }
+
+        try (Main main = new Main(manifestPaths, manifestReferences, args[2], args[3], args.length > 4 ? args[4] : null)) {
             main.run();
         }
     }
@@ -54,115 +127,442 @@ public class Main implements Closeable, Runnable {
         System.err.println("Usage:");
         System.err.println("  java -jar <path-to-jar-file> <path-to-manifest-file> <manifest-reference> <targetRelease> <fix-versions> [<layered-fix-versions>]");
         System.err.println();
-        System.err.println("  <manifest-reference>\tcan be a Maven GAV, git hash, etc.");
+        System.err.println("  <path-to-manifest-file>\tcomma-delimited list of manifests to check the issues against.");
+        System.err.println("  <manifest-reference>\tcan be a Maven GAV, git hash, etc. Comma-delimited list with one reference per manifest.");
         System.err.println("  <target-release>\ttarget release of the component upgrades.");
         System.err.println("  <fix-versions>\tcomma-delimited list of Jira fix versions to set to issues.");
         System.err.println("  <layered-fix-versions>\tcomma-delimited list of Jira fix versions for layered product (e.g. XP).");
     }
 
-    public Main(Path manifestPath, String manifestReference, String targetRelease, String fixVersionsString,
-                String layeredFixVersionsString)
+    /**
+     * @param manifestPaths manifests to check the issues against; Jira issues are only updated for the first one
+     * @param manifestReferences reference of each manifest
+     */
+    public Main(List<Path> manifestPaths, List<String> manifestReferences, String targetRelease,
+                String fixVersionsString, String layeredFixVersionsString)
             throws IOException {
-        config = new SmallRyeConfigBuilder()
+        Config defaultConfig = new SmallRyeConfigBuilder()
+                .addDefaultSources()
+                .build();
+        // In the cassette mode, the remote services are reached through local proxies, whose URLs override the
+        // configured ones.
+        cassetteSession = CassetteSession.create(defaultConfig).orElse(null);
+        config = cassetteSession == null ? defaultConfig : new SmallRyeConfigBuilder()
                 .addDefaultSources()
+                .withSources(cassetteSession.getConfigSource())
                 .build();
 
-        ManifestChecker manifestChecker = new ManifestChecker(manifestPath);
+        ManifestChecker manifestChecker = new ManifestChecker(manifestPaths);
+
+        Optional<Path> verdictStoreDir = config.getOptionalValue(ConfigKeys.VERDICT_STORE_DIR, Path.class);
+        verdictStore = verdictStoreDir.isPresent() ? new VerdictStore(verdictStoreDir.get()) : null;
 
-        // Initialize Jira client
-        jiraUri = config.getValue(ConfigKeys.JIRA_URL, URI.class);
+        // In the diff mode, verdicts recorded for the previous manifest are reused for issues that don't depend on
+        // any of the manifest streams that changed since.
+        Optional<Path> previousManifest = config.getOptionalValue(ConfigKeys.DIFF_PREVIOUS_MANIFEST, Path.class);
+        previousManifestReference = config.getOptionalValue(ConfigKeys.DIFF_PREVIOUS_MANIFEST_REFERENCE, String.class)
+                .orElse(null);
+        if (previousManifest.isPresent() && verdictStore != null) {
+            if (manifestPaths.size() == 1 && previousManifestReference != null) {
+                changedStreams = ManifestChecker.changedStreams(previousManifest.get(), manifestPaths.get(0));
+                logger.infof("Diff mode: %d streams changed since %s, %d verdicts in the store.",
+                        changedStreams.size(), previousManifestReference, verdictStore.size());
+            } else {
+                logger.warn("Diff mode requires a single manifest and the previous manifest reference, all issues "
+                        + "will be resolved.");
+                changedStreams = null;
+            }
+        } else {
+            changedStreams = null;
+        }
+
+        metricsFile = config.getOptionalValue(ConfigKeys.METRICS_FILE, Path.class).orElse(null);
+
+        // Initialize Jira client. Reports always link to the configured Jira, not to the cassette proxy.
+        jiraUri = defaultConfig.getValue(ConfigKeys.JIRA_URL, URI.class);
+        URI jiraClientUri = config.getValue(ConfigKeys.JIRA_URL, URI.class);
         String jiraToken = config.getValue(ConfigKeys.JIRA_TOKEN, String.class);
         Long spacing = config.getOptionalValue(ConfigKeys.JIRA_REQUEST_FREQUENCY, Long.class).orElse(0L);
+        Integer burst = config.getOptionalValue(ConfigKeys.JIRA_REQUEST_BURST, Integer.class).orElse(1);
         Boolean disableStaticStrategy = config.getOptionalValue("static_resolution_strategy.disable", Boolean.class).orElse(false);
         Boolean dryMode = config.getOptionalValue(ConfigKeys.JIRA_DRY_MODE, Boolean.class).orElse(true);
+        workers = Math.max(1, config.getOptionalValue(ConfigKeys.PROCESSING_WORKERS, Integer.class).orElse(1));
+        bulkFetch = config.getOptionalValue(ConfigKeys.JIRA_BULK_FETCH, Boolean.class).orElse(false);
+        searchPageSize = config.getOptionalValue(ConfigKeys.JIRA_SEARCH_PAGE_SIZE, Integer.class)
+                .orElse(bulkFetch ? 100 : 30);
+
+        RetryPolicy retryPolicy = new RetryPolicy(
+                config.getOptionalValue(ConfigKeys.JIRA_RETRY_MAX_ATTEMPTS, Integer.class).orElse(5),
+                config.getOptionalValue(ConfigKeys.JIRA_RETRY_INITIAL_BACKOFF, Long.class).orElse(1000L),
+                config.getOptionalValue(ConfigKeys.JIRA_RETRY_MAX_BACKOFF, Long.class).orElse(60_000L),
+                config.getOptionalValue(ConfigKeys.JIRA_RETRY_DEADLINE, Long.class).orElse(300_000L));
+        Long throttledInterval = config.getOptionalValue(ConfigKeys.JIRA_THROTTLED_REQUEST_FREQUENCY, Long.class)
+                .orElse(Math.max(2000L, 4 * spacing));
 
-        jiraClient = new AsynchronousJiraRestClientFactory()
-                .createWithAuthenticationHandler(jiraUri,
-                        builder -> builder.setHeader("Authorization", "Bearer " + jiraToken));
-        issueClient = new FaultTolerantIssueClient(jiraClient.getIssueClient(), spacing, dryMode);
+        // The HTTP client is decorated so that FaultTolerantIssueClient can see response headers like Retry-After.
+        AuthenticationHandler authenticationHandler = builder -> builder.setHeader("Authorization", "Bearer " + jiraToken);
+        DisposableHttpClient httpClient = new AsynchronousHttpClientFactory().createClient(jiraClientUri, authenticationHandler);
+        jiraClient = new AsynchronousJiraRestClient(jiraClientUri, ResponseCapture.decorate(httpClient));
+        Optional<Path> cacheDir = config.getOptionalValue(ConfigKeys.CACHE_DIR, Path.class);
+        issueCache = cacheDir.isPresent() ? new PersistentIssueCache(cacheDir.get().resolve(ISSUE_CACHE_FILE))
+                : new IssueCache();
+        int maxInFlight = config.getOptionalValue(ConfigKeys.JIRA_MAX_IN_FLIGHT, Integer.class)
+                .orElse(Math.max(workers, burst));
+        issueClient = new FaultTolerantIssueClient(jiraClient, new RateLimiter(spacing, burst), maxInFlight,
+                retryPolicy, throttledInterval, issueCache, dryMode);
 
-        resolutionStrategies.add(new DenyUnwantedStatesStrategy());
-        resolutionStrategies.add(new PncResolutionStrategy(config, manifestChecker));
+        resolutionStrategies.add(new TimedResolutionStrategy(new DenyUnwantedStatesStrategy()));
+        resolutionStrategies.add(new TimedResolutionStrategy(new PncResolutionStrategy(config, manifestChecker)));
         if (!disableStaticStrategy) {
-            resolutionStrategies.add(new StaticDependencyGroupsResolutionStrategy(config, manifestChecker));
+            resolutionStrategies.add(new TimedResolutionStrategy(
+                    new StaticDependencyGroupsResolutionStrategy(config, manifestChecker)));
         }
+        boolean speculative = config.getOptionalValue(ConfigKeys.RESOLUTION_SPECULATIVE, Boolean.class).orElse(false);
+        speculativeExecutor = speculative ? Executors.newFixedThreadPool(workers * resolutionStrategies.size(),
+                new WorkerThreadFactory("strategy-worker-")) : null;
 
         Collection<String> fixVersions = parseCommaSeparatedStringList(fixVersionsString);
         Collection<String> layeredFixVersions = parseCommaSeparatedStringList(layeredFixVersionsString);
 
-        verifiedIssuesConsumers.add(new IssueLinksReportConsumer(issueClient, new File("issue-links.txt"), jiraUri, manifestReference));
-        verifiedIssuesConsumers.add(new IssueCodesReportConsumer(issueClient, new File("issue-codes.txt"), manifestReference));
-        verifiedIssuesConsumers.add(new DetailedReportConsumer(issueClient, new File("detailed-report.txt"), jiraUri, manifestReference));
-        verifiedIssuesConsumers.add(new IssueTransitionConsumer(issueClient, manifestReference, targetRelease, fixVersions, layeredFixVersions));
+        // With several manifests, each one gets its own set of reports, suffixed by the manifest reference.
+        for (int m = 0; m < manifestReferences.size(); m++) {
+            String manifestReference = manifestReferences.get(m);
+            String suffix = manifestReferences.size() > 1 ? "-" + reportSuffix(manifestReference) : "";
+            List<IssueConsumer> verifiedIssuesConsumers = new ArrayList<>();
+            verifiedIssuesConsumers.add(new IssueLinksReportConsumer(issueClient, new File("issue-links" + suffix + ".txt"), jiraUri, manifestReference));
+            verifiedIssuesConsumers.add(new IssueCodesReportConsumer(issueClient, new File("issue-codes" + suffix + ".txt"), manifestReference));
+            verifiedIssuesConsumers.add(new DetailedReportConsumer(issueClient, new File("detailed-report" + suffix + ".txt"), jiraUri, manifestReference));
+            if (m == 0) {
+                // Fix versions given on the command line belong to the primary manifest.
+                verifiedIssuesConsumers.add(new IssueTransitionConsumer(issueClient, manifestReference, targetRelease, fixVersions, layeredFixVersions));
+            }
+
+            IssueConsumer toCheckManually = new IssueLinksReportConsumer(issueClient, new File("check-manually" + suffix + ".txt"),
+                    AbstractIssueConsumer.INCLUDE_ALL, AbstractIssueConsumer.INCLUDE_NONE, jiraUri, manifestReference,
+                    true);
+            manifestReports.add(new ManifestReports(manifestReference, verifiedIssuesConsumers, toCheckManually));
+        }
 
-        toCheckManually = new IssueLinksReportConsumer(issueClient, new File("check-manually.txt"),
-                AbstractIssueConsumer.INCLUDE_ALL, AbstractIssueConsumer.INCLUDE_NONE, jiraUri, manifestReference);
+        // Custom Flight Recorder events, recorded by a recording of the run or by one started by the JVM options.
+        FlightRecording.setEnabled(config.getOptionalValue(ConfigKeys.JFR_EVENTS, Boolean.class).orElse(false));
+        Optional<Path> jfrFile = config.getOptionalValue(ConfigKeys.JFR_FILE, Path.class);
+        flightRecording = jfrFile.isPresent() ? FlightRecording.start(jfrFile.get()) : null;
     }
 
     @Override
     public void close() throws IOException {
-        jiraClient.close();
-        for (IssueConsumer consumer: verifiedIssuesConsumers) {
-            consumer.close();
+        // Everything is closed even if some of the resources fail to close, so that no report, verdict or recording
+        // is lost. The cassette and the recording are closed last, to capture the interactions of the others.
+        List<Closeable> closeables = new ArrayList<>();
+        if (issueCache instanceof PersistentIssueCache persistentIssueCache) {
+            closeables.add(persistentIssueCache::save);
+        }
+        closeables.add(issueClient);
+        closeables.add(jiraClient::close);
+        if (speculativeExecutor != null) {
+            closeables.add(speculativeExecutor::shutdownNow);
+        }
+        if (verdictStore != null) {
+            closeables.add(verdictStore);
+        }
+        for (ComponentUpgradeResolutionStrategy strategy: resolutionStrategies) {
+            if (strategy instanceof Closeable closeable) {
+                closeables.add(closeable);
+            }
+        }
+        for (ManifestReports reports: manifestReports) {
+            closeables.addAll(reports.verifiedIssuesConsumers());
+            closeables.add(reports.toCheckManually());
+        }
+        if (cassetteSession != null) {
+            closeables.add(cassetteSession);
+        }
+        if (flightRecording != null) {
+            closeables.add(flightRecording);
+        }
+        closeAll(closeables);
+    }
+
+    /**
+     * Closes all given resources. The first failure is thrown after all of them were closed, with the following
+     * ones suppressed.
+     */
+    static void closeAll(List<? extends Closeable> closeables) throws IOException {
+        Exception failure = null;
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        } else if (failure != null) {
+            throw (RuntimeException) failure;
         }
-        toCheckManually.close();
     }
 
     @Override
     public void run() {
-        List<String> issueKeys = loadIssueKeys();
-        for (String issueKey : issueKeys) {
-            logger.debugf("Retrieving issue %s", issueKey);
-            Issue issue = issueClient.getIssue(issueKey);
-            URI issueUri = jiraUri.resolve("browse/").resolve(issueKey);
-            logger.infof("Processing issue %s [%s]: %s", issueUri.toString(), issue.getStatus().getName(),
-                    issue.getSummary());
-
-            Boolean result = null;
-            for (ComponentUpgradeResolutionStrategy strategy: resolutionStrategies) {
-                result = strategy.apply(issue);
-                if (result != null) break;
+        // Issues are retrieved and resolved by a pool of workers, but consumers are always fed from this thread in
+        // the order given by the JQL query, so that the reports are deterministic and consumers don't need to be
+        // thread safe. The Jira rate limit is enforced by the shared FaultTolerantIssueClient.
+        Metrics.reset();
+        if (issueCache instanceof PersistentIssueCache persistentIssueCache) {
+            persistentIssueCache.revalidate(issueClient);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory("issue-worker-"));
+        try {
+            List<Future<ResolvedIssue>> results = new ArrayList<>();
+            if (bulkFetch) {
+                // Full issues are taken straight from the search result pages.
+                loadIssues(page -> {
+                    resolutionStrategies.forEach(strategy -> strategy.prefetch(page));
+                    page.forEach(issue -> results.add(executor.submit(() -> resolve(issue))));
+                });
+            } else {
+                // Issues are retrieved asynchronously, workers are only occupied by the resolution itself.
+                for (String issueKey : loadIssueKeys()) {
+                    results.add(retrieveIssue(issueKey).thenApplyAsync(this::resolve, executor));
+                }
+            }
+            // Results are consumed in batches, so that issues incorporated by the covered component upgrades can be
+            // retrieved by a single query per batch, rather than one by one by each consumer.
+            for (int i = 0; i < results.size(); i += searchPageSize) {
+                List<ResolvedIssue> batch = results.subList(i, Math.min(i + searchPageSize, results.size())).stream()
+                        .map(Main::awaitResult)
+                        .toList();
+                long prefetchStart = System.nanoTime();
+                issueClient.prefetch(batch.stream()
+                        .filter(resolvedIssue -> resolvedIssue.verdicts().stream()
+                                .anyMatch(verdict -> Boolean.TRUE.equals(verdict.outcome())))
+                        .flatMap(resolvedIssue -> IssueLinks.incorporatedIssueKeys(resolvedIssue.issue()).stream())
+                        .toList());
+                Metrics.timer(Metrics.JIRA_INCORPORATED_FETCH).recordSince(prefetchStart);
+                batch.forEach(this::consume);
             }
+        } finally {
+            executor.shutdownNow();
+            logger.infof("Jira client statistics: %s", issueClient.getRetryStatistics());
+            reportMetrics();
+        }
+    }
 
+    private void reportMetrics() {
+        logger.infof("Run metrics:%n%s", Metrics.summary());
+        if (metricsFile != null) {
+            try {
+                Metrics.writeJson(metricsFile);
+            } catch (IOException e) {
+                logger.warnf(e, "Can't export run metrics to %s.", metricsFile);
+            }
+        }
+    }
+
+    private CompletableFuture<Issue> retrieveIssue(String issueKey) {
+        logger.debugf("Retrieving issue %s", issueKey);
+        return issueClient.getIssueAsync(issueKey);
+    }
+
+    /**
+     * Runs the issue through the resolution strategies. Called from worker threads.
+     */
+    private ResolvedIssue resolve(Issue issue) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ResolvedIssue resolvedIssue = resolveIssue(issue);
+            success = true;
+            return resolvedIssue;
+        } finally {
+            Metrics.timer(Metrics.ISSUE_RESOLUTION).record(System.nanoTime() - start, success);
+        }
+    }
+
+    private ResolvedIssue resolveIssue(Issue issue) {
+        URI issueUri = jiraUri.resolve("browse/").resolve(issue.getKey());
+        logger.infof("Processing issue %s [%s]: %s", issueUri.toString(), issue.getStatus().getName(),
+                issue.getSummary());
+
+        long issueUpdated = issue.getUpdateDate() != null ? issue.getUpdateDate().getMillis() : 0;
+        VerdictRecord previousVerdict = previousVerdict(issue.getKey());
+        if (previousVerdict != null && previousVerdict.canBeCarriedForward(issueUpdated, changedStreams)) {
+            logger.infof("%s: Carrying forward previous verdict: %s", issue.getKey(), previousVerdict.outcome());
+            return new ResolvedIssue(issue,
+                    List.of(previousVerdict.forManifest(manifestReports.get(0).manifestReference())), List.of());
+        }
+
+        // For each manifest, the first strategy that can tell decides. Strategies are only run until all manifests
+        // are decided.
+        int manifestCount = manifestReports.size();
+        Boolean[] results = new Boolean[manifestCount];
+        String[] decidingStrategies = new String[manifestCount];
+        // Artifacts each verdict depends on, including those of the strategies that couldn't decide.
+        List<Map<String, String>> artifacts = new ArrayList<>(manifestCount);
+        for (int m = 0; m < manifestCount; m++) {
+            artifacts.add(new HashMap<>());
+        }
+        List<String> notes = new ArrayList<>();
+        // In the speculative mode, all strategies start at once, but their verdicts are still taken in the order of
+        // priority. Strategies whose verdicts are no longer needed are cancelled.
+        List<CompletableFuture<Verdict>> speculativeVerdicts = speculativeExecutor == null ? null
+                : resolutionStrategies.stream().map(strategy -> strategy.applyAsync(issue, speculativeExecutor)).toList();
+        try {
+            for (int s = 0; s < resolutionStrategies.size(); s++) {
+                ComponentUpgradeResolutionStrategy strategy = resolutionStrategies.get(s);
+                Verdict verdict = speculativeVerdicts != null ? awaitVerdict(speculativeVerdicts.get(s))
+                        : strategy.apply(issue);
+                if (verdict.getNote() != null) {
+                    notes.add(verdict.getNote());
+                }
+                boolean decided = true;
+                for (int m = 0; m < manifestCount; m++) {
+                    if (results[m] == null) {
+                        artifacts.get(m).putAll(verdict.getArtifacts());
+                        results[m] = verdict.get(m);
+                        if (results[m] != null) {
+                            decidingStrategies[m] = strategy.getName();
+                        }
+                    }
+                    decided &= results[m] != null;
+                }
+                if (decided) break;
+            }
+        } finally {
+            if (speculativeVerdicts != null) {
+                speculativeVerdicts.forEach(future -> future.cancel(true));
+            }
+        }
+
+        long resolvedAt = System.currentTimeMillis();
+        List<VerdictRecord> verdicts = new ArrayList<>(manifestCount);
+        for (int m = 0; m < manifestCount; m++) {
+            verdicts.add(new VerdictRecord(issue.getKey(), manifestReports.get(m).manifestReference(),
+                    decidingStrategies[m], results[m], Map.copyOf(artifacts.get(m)), issueUpdated, resolvedAt));
+        }
+        return new ResolvedIssue(issue, verdicts, List.copyOf(notes));
+    }
+
+    /**
+     * @return verdict recorded for the previous manifest, or null unless in the diff mode
+     */
+    private VerdictRecord previousVerdict(String issueKey) {
+        if (changedStreams == null) {
+            return null;
+        }
+        try {
+            return verdictStore.get(issueKey, previousManifestReference);
+        } catch (IOException e) {
+            logger.warnf(e, "%s: Can't read previous verdict.", issueKey);
+            return null;
+        }
+    }
+
+    /**
+     * Passes resolved issue to the consumers. Must be called in the order of the JQL result.
+     */
+    private void consume(ResolvedIssue resolvedIssue) {
+        Issue issue = resolvedIssue.issue();
+        if (verdictStore != null) {
+            try {
+                for (VerdictRecord verdict : resolvedIssue.verdicts()) {
+                    verdictStore.append(verdict);
+                }
+            } catch (IOException e) {
+                logger.warnf(e, "%s: Can't record the verdict.", issue.getKey());
+            }
+        }
+        for (int m = 0; m < manifestReports.size(); m++) {
+            ManifestReports reports = manifestReports.get(m);
+            String manifest = manifestReports.size() > 1 ? " (" + reports.manifestReference() + ")" : "";
+            Boolean result = resolvedIssue.verdicts().get(m).outcome();
             if (result == null) {
-                logger.warnf("%s: Unable to determine if issue is covered by the manifest.", issueKey);
-                toCheckManually.accept(issue);
+                logger.warnf("%s: Unable to determine if issue is covered by the manifest%s.", issue.getKey(), manifest);
+                accept(reports.toCheckManually(), issue, resolvedIssue.notes());
             } else if (result) {
-                logger.infof("%s: Issue is covered by the manifest.", issueKey);
-                processReportConsumers(issue);
+                logger.infof("%s: Issue is covered by the manifest%s.", issue.getKey(), manifest);
+                processReportConsumers(reports, issue, resolvedIssue.notes());
             } else {
-                logger.infof("%s: Issue is not covered by the manifest.", issueKey);
+                logger.infof("%s: Issue is not covered by the manifest%s.", issue.getKey(), manifest);
             }
         }
     }
 
+    private static Verdict awaitVerdict(Future<Verdict> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for strategy verdict", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static ResolvedIssue awaitResult(Future<ResolvedIssue> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for issue resolution", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     /**
      * Discovers available component upgrade Jira issues.
      */
     private List<String> loadIssueKeys() {
-        int maxResults = 30;
-        int startIndex = 0;
-
         List<String> keys = new ArrayList<>();
-        SearchResult searchResult;
-
-        String jiraQuery = config.getValue(ConfigKeys.JIRA_QUERY, String.class);
+        loadIssues(Collections.emptySet(), page -> page.forEach(issue -> keys.add(issue.getKey())));
+        return keys;
+    }
 
-        do {
-            searchResult = jiraClient.getSearchClient()
-                    .searchJql(jiraQuery, maxResults, startIndex, Collections.emptySet()).claim();
-            searchResult.getIssues().iterator().forEachRemaining(issue -> keys.add(issue.getKey()));
-            startIndex += maxResults;
-        } while (searchResult.getTotal() > startIndex);
+    /**
+     * Retrieves full component upgrade Jira issues, page by page.
+     */
+    private void loadIssues(Consumer<List<Issue>> pageConsumer) {
+        loadIssues(BULK_FETCH_FIELDS, pageConsumer);
+    }
 
-        logger.infof("Found %s component upgrade issues.", searchResult.getTotal());
+    private void loadIssues(Set<String> fields, Consumer<List<Issue>> pageConsumer) {
+        String jiraQuery = config.getValue(ConfigKeys.JIRA_QUERY, String.class);
+        try (SearchPager pager = new SearchPager(issueClient, jiraQuery, searchPageSize, fields)) {
+            while (pager.hasNext()) {
+                pageConsumer.accept(pager.next());
+            }
+            logger.infof("Found %s component upgrade issues.", pager.getTotal());
+        }
+    }
 
-        return keys;
+    private static void processReportConsumers(ManifestReports reports, Issue issue, List<String> notes) {
+        for (IssueConsumer consumer: reports.verifiedIssuesConsumers()) {
+            accept(consumer, issue, notes);
+        }
     }
 
-    private void processReportConsumers(Issue issue) {
-        for (IssueConsumer consumer: verifiedIssuesConsumers) {
-            consumer.accept(issue);
+    private static void accept(IssueConsumer consumer, Issue issue, List<String> notes) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            consumer.accept(issue, notes);
+            success = true;
+        } finally {
+            Metrics.timer(Metrics.CONSUMER_PREFIX + consumer.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, success);
         }
     }
 
@@ -175,4 +575,50 @@ public class Main implements Closeable, Runnable {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Makes a manifest reference usable in a file name.
+     */
+    static String reportSuffix(String manifestReference) {
+        return manifestReference.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+
+    protected static List<String> parseCommaSeparatedOrderedList(String input) {
+        if (StringUtils.isBlank(input)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(input.trim().split(","))
+                .map(String::trim)
+                .toList();
+    }
+
+    /**
+     * @param verdicts verdict for each manifest
+     */
+    /**
+     * @param notes notes of the strategies that were consulted, for the reports
+     */
+    private record ResolvedIssue(Issue issue, List<VerdictRecord> verdicts, List<String> notes) {
+    }
+
+    private record ManifestReports(String manifestReference, List<IssueConsumer> verifiedIssuesConsumers,
+                                   IssueConsumer toCheckManually) {
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String namePrefix;
+
+        private WorkerThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
\ No newline at end of file
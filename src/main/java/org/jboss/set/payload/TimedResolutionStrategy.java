@@ -0,0 +1,70 @@
+package org.jboss.set.payload;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.Metrics;
+import org.jboss.set.payload.metrics.StrategyDecisionEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Measures the runs of a resolution strategy by the "strategy.&lt;name&gt;" timer. Runs that throw are counted as
+ * errors. When the Flight Recorder events are enabled, each run also emits a {@link StrategyDecisionEvent}.
+ */
+class TimedResolutionStrategy implements ComponentUpgradeResolutionStrategy, Closeable {
+
+    private final ComponentUpgradeResolutionStrategy delegate;
+    private final String timerName;
+
+    TimedResolutionStrategy(ComponentUpgradeResolutionStrategy delegate) {
+        this.delegate = delegate;
+        this.timerName = Metrics.STRATEGY_PREFIX + delegate.getName();
+    }
+
+    @Override
+    public Verdict apply(Issue issue) {
+        long start = System.nanoTime();
+        StrategyDecisionEvent event = FlightRecording.isEnabled()
+                ? new StrategyDecisionEvent(delegate.getName(), issue.getKey()) : null;
+        Verdict verdict = null;
+        Throwable failure = null;
+        try {
+            verdict = delegate.apply(issue);
+            return verdict;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            Metrics.timer(timerName).record(System.nanoTime() - start, failure == null);
+            if (event != null) {
+                if (verdict != null) {
+                    event.verdict = verdict.toString();
+                    event.artifacts = verdict.getArtifacts().size();
+                }
+                if (failure != null) {
+                    event.error = failure.getClass().getName();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void prefetch(Collection<Issue> issues) {
+        delegate.prefetch(issues);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
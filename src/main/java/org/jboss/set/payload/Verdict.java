@@ -0,0 +1,78 @@
+package org.jboss.set.payload;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Outcome of a resolution strategy for each of the manifests an issue is checked against: true if the component
+ * upgrade is covered by the manifest, false if it isn't, null if the strategy can't tell.
+ * <p>
+ * Also carries the GA -> version map of the upgrade artifacts that were checked against the manifests, if any, so
+ * that it is known which manifest streams the outcome depends on.
+ */
+public final class Verdict {
+
+    public static final Verdict UNKNOWN = new Verdict(Map.of(), null, null, null);
+
+    private final Map<String, String> artifacts;
+    private final Boolean[] outcomes;
+    private final Boolean uniformOutcome;
+    private final String note;
+
+    private Verdict(Map<String, String> artifacts, Boolean[] outcomes, Boolean uniformOutcome, String note) {
+        this.artifacts = artifacts;
+        this.outcomes = outcomes;
+        this.uniformOutcome = uniformOutcome;
+        this.note = note;
+    }
+
+    /**
+     * @param artifacts upgrade artifacts checked against the manifests
+     * @param outcomes outcome for each manifest, in the order the manifests were given
+     */
+    public static Verdict of(Map<String, String> artifacts, Boolean[] outcomes) {
+        return new Verdict(Map.copyOf(artifacts), outcomes.clone(), null, null);
+    }
+
+    /**
+     * @return verdict with the same outcome for all manifests, not based on any artifacts, e.g. when the issue is
+     * denied regardless of manifest
+     */
+    public static Verdict uniform(Boolean outcome) {
+        return outcome == null ? UNKNOWN : new Verdict(Map.of(), null, outcome, null);
+    }
+
+    /**
+     * @return the same verdict with a note for the reports, e.g. telling the person checking the issue manually what
+     * the strategy has found
+     */
+    public Verdict withNote(String note) {
+        return new Verdict(artifacts, outcomes, uniformOutcome, note);
+    }
+
+    /**
+     * @return note for the reports, or null
+     */
+    public String getNote() {
+        return note;
+    }
+
+    /**
+     * @return upgrade artifacts checked against the manifests, empty if the verdict isn't based on artifacts
+     */
+    public Map<String, String> getArtifacts() {
+        return artifacts;
+    }
+
+    /**
+     * @return outcome for the manifest at given index
+     */
+    public Boolean get(int manifestIndex) {
+        return outcomes != null ? outcomes[manifestIndex] : uniformOutcome;
+    }
+
+    @Override
+    public String toString() {
+        return outcomes != null ? Arrays.toString(outcomes) : String.valueOf(uniformOutcome);
+    }
+}
@@ -0,0 +1,218 @@
+package org.jboss.set.payload.cassette;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP interactions with the remote services, recorded by {@link CassetteProxy} and replayed from a file.
+ * <p>
+ * Interactions are grouped by service and keyed by the request method, path with query and a hash of the request
+ * body. When the same request was made several times, its responses are replayed in the recorded order, the last one
+ * being repeated once the others are used up. The file is a gzipped binary stream.
+ */
+public class Cassette {
+
+    private static final int MAGIC = 0x43415353;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * @param status HTTP status code
+     * @param headers response headers, without the hop-by-hop ones
+     * @param latencyMillis time the service took to respond
+     */
+    public record Interaction(int status, Map<String, List<String>> headers, byte[] body, long latencyMillis) {
+    }
+
+    private static class Track {
+        private final List<Interaction> interactions = new ArrayList<>();
+        private int played;
+    }
+
+    /**
+     * Service name -> base URI of the service it was recorded from.
+     */
+    private final Map<String, String> origins = new LinkedHashMap<>();
+    /**
+     * Service name -> request key -> responses in the recorded order.
+     */
+    private final Map<String, Map<String, Track>> tracks = new LinkedHashMap<>();
+
+    /**
+     * @return key identifying the request in the cassette
+     */
+    public static String requestKey(String method, String pathAndQuery, byte[] body) {
+        if (body == null || body.length == 0) {
+            return method + " " + pathAndQuery;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return method + " " + pathAndQuery + " " + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized void setOrigin(String service, String origin) {
+        origins.put(service, origin);
+    }
+
+    /**
+     * @return base URI of the service the interactions were recorded from, or null
+     */
+    public synchronized String getOrigin(String service) {
+        return origins.get(service);
+    }
+
+    public synchronized void record(String service, String requestKey, Interaction interaction) {
+        tracks.computeIfAbsent(service, s -> new LinkedHashMap<>())
+                .computeIfAbsent(requestKey, k -> new Track())
+                .interactions.add(interaction);
+    }
+
+    /**
+     * @return next recorded response to the request, or null if the request hasn't been recorded
+     */
+    public synchronized Interaction play(String service, String requestKey) {
+        Track track = tracks.getOrDefault(service, Map.of()).get(requestKey);
+        if (track == null) {
+            return null;
+        }
+        int index = Math.min(track.played, track.interactions.size() - 1);
+        track.played++;
+        return track.interactions.get(index);
+    }
+
+    /**
+     * @return number of recorded interactions
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Map<String, Track> serviceTracks : tracks.values()) {
+            for (Track track : serviceTracks.values()) {
+                size += track.interactions.size();
+            }
+        }
+        return size;
+    }
+
+    public synchronized void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(origins.size());
+            for (Map.Entry<String, String> origin : origins.entrySet()) {
+                out.writeUTF(origin.getKey());
+                out.writeUTF(origin.getValue());
+            }
+            out.writeInt(tracks.size());
+            for (Map.Entry<String, Map<String, Track>> service : tracks.entrySet()) {
+                out.writeUTF(service.getKey());
+                out.writeInt(service.getValue().size());
+                for (Map.Entry<String, Track> track : service.getValue().entrySet()) {
+                    writeString(out, track.getKey());
+                    out.writeInt(track.getValue().interactions.size());
+                    for (Interaction interaction : track.getValue().interactions) {
+                        writeInteraction(out, interaction);
+                    }
+                }
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Cassette load(Path file) throws IOException {
+        Cassette cassette = new Cassette();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format of cassette " + file);
+            }
+            int originCount = in.readInt();
+            for (int i = 0; i < originCount; i++) {
+                cassette.origins.put(in.readUTF(), in.readUTF());
+            }
+            int serviceCount = in.readInt();
+            for (int i = 0; i < serviceCount; i++) {
+                String service = in.readUTF();
+                int trackCount = in.readInt();
+                for (int j = 0; j < trackCount; j++) {
+                    String requestKey = readString(in);
+                    int interactionCount = in.readInt();
+                    for (int k = 0; k < interactionCount; k++) {
+                        cassette.record(service, requestKey, readInteraction(in));
+                    }
+                }
+            }
+        }
+        return cassette;
+    }
+
+    private static void writeInteraction(DataOutputStream out, Interaction interaction) throws IOException {
+        out.writeShort(interaction.status());
+        out.writeLong(interaction.latencyMillis());
+        out.writeInt(interaction.headers().size());
+        for (Map.Entry<String, List<String>> header : interaction.headers().entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                writeString(out, value);
+            }
+        }
+        out.writeInt(interaction.body().length);
+        out.write(interaction.body());
+    }
+
+    private static Interaction readInteraction(DataInputStream in) throws IOException {
+        int status = in.readShort();
+        long latencyMillis = in.readLong();
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = in.readUTF();
+            int valueCount = in.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++) {
+                values.add(readString(in));
+            }
+            headers.put(name, List.copyOf(values));
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new Interaction(status, headers, body, latencyMillis);
+    }
+
+    /**
+     * Unlike {@link DataOutputStream#writeUTF(String)}, not limited to 64 KiB, which long JQL queries can exceed.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,262 @@
+package org.jboss.set.payload.cassette;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.logging.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local reverse proxy standing between the tool and one remote service, recording the interactions into a cassette or
+ * replaying them from it.
+ * <p>
+ * Paths are kept as they are, so a client is redirected to the proxy by replacing the scheme, host and port of the
+ * service URL by those of {@link #getOrigin()}. Occurrences of the service origin in textual responses, e.g. the
+ * "self" links of Jira issues, are replaced by the proxy origin, so that the clients following them stay on the proxy.
+ */
+public class CassetteProxy implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(CassetteProxy.class);
+
+    /**
+     * Request headers not forwarded to the service, either hop-by-hop or set by the HTTP client itself. Accept-Encoding
+     * is dropped so that the responses are recorded uncompressed.
+     */
+    private static final Set<String> SKIPPED_REQUEST_HEADERS = Set.of("host", "connection", "content-length",
+            "expect", "upgrade", "keep-alive", "transfer-encoding", "te", "trailer", "proxy-connection",
+            "accept-encoding");
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = Set.of("connection", "content-length",
+            "transfer-encoding", "keep-alive", "content-encoding", "date", ":status");
+    private static final Map<String, List<String>> JSON = Map.of("Content-Type", List.of("application/json"));
+
+    private final String service;
+    private final Cassette cassette;
+    private final boolean recording;
+    private final boolean replayLatency;
+    private final String serviceOrigin;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicInteger missed = new AtomicInteger();
+
+    /**
+     * Creates a proxy recording the interactions with the service into the cassette.
+     *
+     * @param serviceUri URI of the service, only its scheme, host and port are used
+     */
+    public static CassetteProxy recording(String service, URI serviceUri, Cassette cassette) throws IOException {
+        String origin = origin(serviceUri);
+        cassette.setOrigin(service, origin);
+        return new CassetteProxy(service, cassette, true, false, origin);
+    }
+
+    /**
+     * Creates a proxy replaying the interactions with the service from the cassette, without contacting the service.
+     *
+     * @param replayLatency whether to delay the responses as long as the recorded ones took
+     */
+    public static CassetteProxy replaying(String service, Cassette cassette, boolean replayLatency)
+            throws IOException {
+        return new CassetteProxy(service, cassette, false, replayLatency, cassette.getOrigin(service));
+    }
+
+    private CassetteProxy(String service, Cassette cassette, boolean recording, boolean replayLatency,
+                          String serviceOrigin) throws IOException {
+        this.service = service;
+        this.cassette = cassette;
+        this.recording = recording;
+        this.replayLatency = replayLatency;
+        this.serviceOrigin = serviceOrigin;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cassette-" + service + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = recording ? HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build() : null;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } catch (IOException | RuntimeException e) {
+                logger.warnf(e, "%s proxy failed to handle %s %s", service, exchange.getRequestMethod(),
+                        exchange.getRequestURI());
+                respond(exchange, 502, JSON, error(e.toString()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * @return scheme, host and port of the proxy, without a trailing slash
+     */
+    public String getOrigin() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * @return the service URL redirected to this proxy
+     */
+    public URI redirect(URI serviceUri) {
+        String origin = origin(serviceUri);
+        return URI.create(getOrigin() + serviceUri.toString().substring(origin.length()));
+    }
+
+    /**
+     * @return number of requests served, by the service or from the cassette
+     */
+    public int getServedCount() {
+        return served.get();
+    }
+
+    /**
+     * @return number of requests not found in the cassette
+     */
+    public int getMissedCount() {
+        return missed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException, InterruptedException {
+        String pathAndQuery = exchange.getRequestURI().getRawPath()
+                + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "");
+        byte[] requestBody = exchange.getRequestBody().readAllBytes();
+        String requestKey = Cassette.requestKey(exchange.getRequestMethod(), pathAndQuery, requestBody);
+
+        Cassette.Interaction interaction;
+        if (recording) {
+            interaction = forward(exchange, pathAndQuery, requestBody);
+            cassette.record(service, requestKey, interaction);
+        } else {
+            interaction = cassette.play(service, requestKey);
+            if (interaction == null) {
+                missed.incrementAndGet();
+                logger.warnf("%s: request not found in the cassette: %s %s", service, exchange.getRequestMethod(),
+                        pathAndQuery);
+                respond(exchange, 404, JSON, error("Not recorded: " + exchange.getRequestMethod() + " "
+                        + pathAndQuery));
+                return;
+            }
+            if (replayLatency && interaction.latencyMillis() > 0) {
+                Thread.sleep(interaction.latencyMillis());
+            }
+        }
+        served.incrementAndGet();
+        respond(exchange, interaction.status(), interaction.headers(), rewrite(interaction));
+    }
+
+    private Cassette.Interaction forward(HttpExchange exchange, String pathAndQuery, byte[] requestBody)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(serviceOrigin + pathAndQuery))
+                .method(exchange.getRequestMethod(), requestBody.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(requestBody)
+                        : HttpRequest.BodyPublishers.noBody());
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!SKIPPED_REQUEST_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                header.getValue().forEach(value -> request.header(header.getKey(), value));
+            }
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        long latencyMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!SKIPPED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return new Cassette.Interaction(response.statusCode(), headers, response.body(), latencyMillis);
+    }
+
+    /**
+     * @return body of the recorded response, with the service origin replaced by the proxy origin
+     */
+    private byte[] rewrite(Cassette.Interaction interaction) {
+        if (serviceOrigin == null || !isText(interaction.headers())) {
+            return interaction.body();
+        }
+        String body = new String(interaction.body(), StandardCharsets.UTF_8);
+        return body.replace(serviceOrigin, getOrigin()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, int status, Map<String, List<String>> headers, byte[] body)
+            throws IOException {
+        Headers responseHeaders = exchange.getResponseHeaders();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            List<String> values = new ArrayList<>();
+            for (String value : header.getValue()) {
+                values.add(serviceOrigin != null ? value.replace(serviceOrigin, getOrigin()) : value);
+            }
+            responseHeaders.put(header.getKey(), values);
+        }
+        boolean noBody = body.length == 0 || status == 204 || status == 304
+                || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static boolean isText(Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if ("content-type".equalsIgnoreCase(header.getKey())) {
+                return header.getValue().stream().anyMatch(value -> value.contains("json") || value.startsWith("text/")
+                        || value.contains("xml"));
+            }
+        }
+        return false;
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return scheme, host and port of the URI, without a trailing slash
+     */
+    static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
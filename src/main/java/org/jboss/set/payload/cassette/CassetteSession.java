@@ -0,0 +1,129 @@
+package org.jboss.set.payload.cassette;
+
+import io.smallrye.config.PropertiesConfigSource;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.jboss.logging.Logger;
+import org.jboss.set.payload.ConfigKeys;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cassette proxies of all the configured remote services for the duration of a run.
+ * <p>
+ * The service URLs are redirected to the proxies by a config source overriding the configured ones, see
+ * {@link #getConfigSource()}. In the record mode, the cassette is written on close.
+ */
+public class CassetteSession implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(CassetteSession.class);
+
+    /**
+     * Above system properties (400) and environment variables (300).
+     */
+    private static final int CONFIG_SOURCE_ORDINAL = 500;
+    private static final String[] SERVICE_URL_KEYS = {
+            ConfigKeys.JIRA_URL,
+            ConfigKeys.PNC_BUILDS_API_URL,
+            ConfigKeys.LLM_BASE_URL,
+    };
+
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+
+    private final Mode mode;
+    private final Path file;
+    private final Cassette cassette;
+    private final List<CassetteProxy> proxies = new ArrayList<>();
+    private final Map<String, String> redirectedUrls = new LinkedHashMap<>();
+
+    /**
+     * @return session for the configured cassette mode, or empty if the cassette is disabled
+     */
+    public static Optional<CassetteSession> create(Config config) throws IOException {
+        Optional<String> mode = config.getOptionalValue(ConfigKeys.CASSETTE_MODE, String.class)
+                .filter(value -> !value.isBlank());
+        if (mode.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = config.getValue(ConfigKeys.CASSETTE_FILE, Path.class);
+        String replayLatency = config.getOptionalValue(ConfigKeys.CASSETTE_REPLAY_LATENCY, String.class)
+                .orElse("recorded");
+        if (!"recorded".equals(replayLatency) && !"none".equals(replayLatency)) {
+            throw new IllegalArgumentException("Unknown cassette replay latency: " + replayLatency);
+        }
+        return Optional.of(new CassetteSession(config, Mode.valueOf(mode.get().trim().toUpperCase(Locale.ROOT)),
+                file, "recorded".equals(replayLatency)));
+    }
+
+    private CassetteSession(Config config, Mode mode, Path file, boolean replayLatency) throws IOException {
+        this.mode = mode;
+        this.file = file;
+        cassette = mode == Mode.RECORD ? new Cassette() : Cassette.load(file);
+        try {
+            for (String key : SERVICE_URL_KEYS) {
+                Optional<URI> url = config.getOptionalValue(key, String.class)
+                        .filter(value -> !value.isBlank())
+                        .map(URI::create);
+                if (url.isPresent()) {
+                    // Services are named by their config keys, e.g. "jira.url".
+                    CassetteProxy proxy = mode == Mode.RECORD ? CassetteProxy.recording(key, url.get(), cassette)
+                            : CassetteProxy.replaying(key, cassette, replayLatency);
+                    proxies.add(proxy);
+                    redirectedUrls.put(key, proxy.redirect(url.get()).toString());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            proxies.forEach(CassetteProxy::close);
+            throw e;
+        }
+        if (mode == Mode.RECORD) {
+            logger.infof("Recording the remote service interactions into cassette %s.", file);
+        } else {
+            logger.infof("Replaying %d remote service interactions from cassette %s%s.", cassette.size(), file,
+                    replayLatency ? "" : " without latency");
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return config source redirecting the service URLs to the proxies, taking precedence over the default sources
+     */
+    public ConfigSource getConfigSource() {
+        return new PropertiesConfigSource(redirectedUrls, "cassette", CONFIG_SOURCE_ORDINAL);
+    }
+
+    @Override
+    public void close() throws IOException {
+        int served = 0;
+        int missed = 0;
+        for (CassetteProxy proxy : proxies) {
+            proxy.close();
+            served += proxy.getServedCount();
+            missed += proxy.getMissedCount();
+        }
+        if (mode == Mode.RECORD) {
+            cassette.save(file);
+            logger.infof("Recorded %d remote service interactions into cassette %s.", cassette.size(), file);
+        } else if (missed > 0) {
+            logger.warnf("Replayed %d remote service interactions, %d requests were not found in the cassette.",
+                    served, missed);
+        } else {
+            logger.infof("Replayed %d remote service interactions.", served);
+        }
+    }
+}
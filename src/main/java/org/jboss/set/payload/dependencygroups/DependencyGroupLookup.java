@@ -2,55 +2,172 @@ package org.jboss.set.payload.dependencygroups;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.jboss.logging.Logger;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class DependencyGroupLookup {
 
+    private static final Logger logger = Logger.getLogger(DependencyGroupLookup.class);
+
+    public static final double DEFAULT_FUZZY_MATCH_THRESHOLD = 0.75;
+    public static final double DEFAULT_FUZZY_ACCEPT_THRESHOLD = 0.9;
+
     private final List<DependencyGroup> groups;
-    private final Map<String, DependencyGroup> aliasToGroup = new HashMap<>();
+    private final Map<String, DependencyGroup> aliasToGroup;
+    /**
+     * ArtifactId -> groups containing an artifact with that artifactId. A group is listed once for each such artifact,
+     * so that an artifactId shared by several artifacts of the same group is still considered ambiguous.
+     */
+    private final Map<String, List<DependencyGroup>> artifactIdToGroups;
+    /**
+     * Normalized component name or alias -> groups, to match names that only differ in case and separators, e.g.
+     * "Hibernate ORM" and "hibernate-orm".
+     */
+    private final Map<String, List<DependencyGroup>> normalizedAliasToGroups;
+    /**
+     * Trigram index of component names and aliases, for names that are similar but not the same, e.g. "netty-4" and
+     * "netty".
+     */
+    private final TrigramIndex<DependencyGroup> fuzzyIndex;
+    private final double fuzzyMatchThreshold;
 
     public DependencyGroupLookup(File dependencyGroupFile) throws IOException {
+        this(dependencyGroupFile, DEFAULT_FUZZY_MATCH_THRESHOLD);
+    }
+
+    /**
+     * @param dependencyGroupFile YAML file with dependency groups
+     * @param fuzzyMatchThreshold minimal similarity score (0 to 1) of a fuzzy component name match, values above 1
+     *                            disable fuzzy matching
+     */
+    public DependencyGroupLookup(File dependencyGroupFile, double fuzzyMatchThreshold) throws IOException {
+        this.fuzzyMatchThreshold = fuzzyMatchThreshold;
         YAMLMapper mapper = YAMLMapper.builder().build();
         JavaType type = mapper.getTypeFactory().constructParametricType(List.class, DependencyGroup.class);
         groups = mapper.readValue(dependencyGroupFile, type);
+
+        Map<String, DependencyGroup> aliases = new HashMap<>();
+        Map<String, List<DependencyGroup>> artifactIds = new HashMap<>();
+        Map<String, List<DependencyGroup>> normalizedAliases = new HashMap<>();
+        Map<String, DependencyGroup> names = new LinkedHashMap<>();
         groups.forEach(group -> {
-            aliasToGroup.put(group.getComponent().toLowerCase(), group);
-            group.getAliases().forEach(alias -> aliasToGroup.put(alias.toLowerCase(), group));
+            aliases.put(group.getComponent().toLowerCase(), group);
+            group.getAliases().forEach(alias -> aliases.put(alias.toLowerCase(), group));
+
+            for (String ga: group.getDependencies()) {
+                String[] segments = ga.split(":");
+                if (segments.length > 1) {
+                    artifactIds.computeIfAbsent(segments[1], k -> new ArrayList<>()).add(group);
+                }
+            }
+
+            List<String> groupNames = new ArrayList<>(group.getAliases());
+            groupNames.add(group.getComponent());
+            groupNames.stream()
+                    .map(DependencyGroupLookup::normalize)
+                    .distinct()
+                    .forEach(name -> normalizedAliases.computeIfAbsent(name, k -> new ArrayList<>()).add(group));
+            groupNames.forEach(name -> names.putIfAbsent(name, group));
         });
+        aliasToGroup = Map.copyOf(aliases);
+        artifactIdToGroups = copyOf(artifactIds);
+        normalizedAliasToGroups = copyOf(normalizedAliases);
+        fuzzyIndex = TrigramIndex.of(names);
+    }
+
+    /**
+     * @param component component name of the dependency group
+     * @param artifacts GAs of the dependency group
+     * @param fuzzy true if the group was only found by a similar name, so the match may be wrong
+     * @param matchedName group name or alias the component name was matched to
+     * @param score similarity of the names, 1 for exact matches
+     */
+    public record GroupMatch(String component, Collection<String> artifacts, boolean fuzzy, String matchedName,
+                             double score) {
+
+        static GroupMatch exact(DependencyGroup group, String componentAlias) {
+            return new GroupMatch(group.getComponent(), group.getDependencies(), false, componentAlias, 1);
+        }
+
+        /**
+         * @return description of a fuzzy match for the reports, e.g. "dependency group 'netty' (similar name 'netty',
+         * score 0.80)"
+         */
+        public String describe() {
+            return String.format("dependency group '%s' (similar name '%s', score %.2f)", component, matchedName, score);
+        }
     }
 
     public Collection<String> findArtifacts(String componentAlias) {
+        GroupMatch match = findGroup(componentAlias);
+        return match != null ? match.artifacts() : null;
+    }
+
+    /**
+     * @return dependency group of given component, or null if it can't be identified
+     */
+    public GroupMatch findGroup(String componentAlias) {
         // This determines if there's a group with defined name or alias that matches the given componentAlias.
         DependencyGroup dependencyGroup = aliasToGroup.get(componentAlias.toLowerCase());
         if (dependencyGroup != null) {
-            return dependencyGroup.getDependencies();
+            return GroupMatch.exact(dependencyGroup, componentAlias);
         }
 
         // As a backup strategy, check if we can identify a group based on artifactId.
-        List<DependencyGroup> matchingGroups = new ArrayList<>();
-        for (DependencyGroup group: groups) {
-            for (String ga: group.getDependencies()) {
-                String[] segments = ga.split(":");
-                if (segments.length > 1) {
-                    String artifactId = segments[1];
-                    if (componentAlias.equals(artifactId)) {
-                        matchingGroups.add(group);
-                    }
-                }
-            }
+        List<DependencyGroup> matchingGroups = artifactIdToGroups.get(componentAlias);
+        if (matchingGroups != null) {
+            // Only return if single candidate group was found.
+            return matchingGroups.size() == 1 ? GroupMatch.exact(matchingGroups.get(0), componentAlias) : null;
+        }
+
+        // Finally, try names that differ only in case and separators.
+        matchingGroups = normalizedAliasToGroups.get(normalize(componentAlias));
+        if (matchingGroups != null && matchingGroups.size() == 1) {
+            return GroupMatch.exact(matchingGroups.get(0), componentAlias);
         }
-        if (matchingGroups.size() == 1) { // Only return if single candidate group was found.
-            return matchingGroups.get(0).getDependencies();
+
+        // Last resort, the most similar component name, if it is similar enough and unambiguous.
+        TrigramIndex.Match<DependencyGroup> match = fuzzyIndex.findBest(componentAlias, fuzzyMatchThreshold);
+        if (match != null) {
+            logger.infof("Component '%s' matched to dependency group '%s' by similar name '%s', score %.2f",
+                    componentAlias, match.value().getComponent(), match.name(), match.score());
+            return new GroupMatch(match.value().getComponent(), match.value().getDependencies(), true, match.name(),
+                    match.score());
         }
 
         // Null represents Unknown.
         return null;
     }
+
+    /**
+     * Lowercases the name and removes everything but letters and digits.
+     */
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    List<DependencyGroup> getGroups() {
+        return groups;
+    }
+
+    private static Map<String, List<DependencyGroup>> copyOf(Map<String, List<DependencyGroup>> map) {
+        Map<String, List<DependencyGroup>> copy = new HashMap<>();
+        map.forEach((key, value) -> copy.put(key, List.copyOf(value)));
+        return Map.copyOf(copy);
+    }
 }
@@ -5,53 +5,94 @@ import org.eclipse.microprofile.config.Config;
 import org.jboss.logging.Logger;
 import org.jboss.set.payload.ComponentUpgradeResolutionStrategy;
 import org.jboss.set.payload.ConfigKeys;
+import org.jboss.set.payload.Verdict;
 import org.jboss.set.payload.Main;
 import org.jboss.set.payload.llm.ComponentUpgrade;
+import org.jboss.set.payload.llm.ChainedSummaryExtractor;
 import org.jboss.set.payload.llm.LlmSummaryExtractor;
+import org.jboss.set.payload.llm.PatternSummaryExtractor;
+import org.jboss.set.payload.llm.SummaryExtractor;
 import org.jboss.set.payload.manifest.ManifestChecker;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 
-public class StaticDependencyGroupsResolutionStrategy implements ComponentUpgradeResolutionStrategy {
+public class StaticDependencyGroupsResolutionStrategy implements ComponentUpgradeResolutionStrategy, Closeable {
 
     private static final Logger logger = Logger.getLogger(Main.class);
 
-    private final LlmSummaryExtractor summaryExtractor;
+    private final ChainedSummaryExtractor summaryExtractor;
     private final DependencyGroupLookup dependencyGroupLookup;
     private final ManifestChecker manifestChecker;
+    private final double fuzzyAcceptThreshold;
 
     public StaticDependencyGroupsResolutionStrategy(Config config, ManifestChecker manifestChecker) {
-        this.summaryExtractor = new LlmSummaryExtractor(config);
+        // The LLM is only asked about summaries that don't follow the usual templates, and is optional.
+        List<SummaryExtractor> extractors = new ArrayList<>();
+        extractors.add(new PatternSummaryExtractor());
+        if (config.getOptionalValue(ConfigKeys.LLM_BASE_URL, String.class).filter(s -> !s.isBlank()).isPresent()) {
+            extractors.add(new LlmSummaryExtractor(config));
+        } else {
+            logger.info("LLM base URL is not configured, summaries will only be parsed by patterns.");
+        }
+        this.summaryExtractor = new ChainedSummaryExtractor(extractors);
         this.manifestChecker = manifestChecker;
+        this.fuzzyAcceptThreshold = config.getOptionalValue(ConfigKeys.DEPENDENCY_GROUPS_FUZZY_ACCEPT_THRESHOLD,
+                Double.class).orElse(DependencyGroupLookup.DEFAULT_FUZZY_ACCEPT_THRESHOLD);
         try {
             String filename = config.getOptionalValue(ConfigKeys.DEPENDENCY_GROUPS_FILE, String.class)
                     .orElse("dependency-groups.yaml");
-            this.dependencyGroupLookup = new DependencyGroupLookup(new File(filename));
+            double fuzzyMatchThreshold = config.getOptionalValue(ConfigKeys.DEPENDENCY_GROUPS_FUZZY_MATCH_THRESHOLD,
+                    Double.class).orElse(DependencyGroupLookup.DEFAULT_FUZZY_MATCH_THRESHOLD);
+            this.dependencyGroupLookup = new DependencyGroupLookup(new File(filename), fuzzyMatchThreshold);
         } catch (IOException e) {
             throw new RuntimeException("Can't load the dependency group file", e);
         }
     }
 
     @Override
-    public Boolean apply(Issue issue) {
+    public void prefetch(Collection<Issue> issues) {
+        summaryExtractor.prefetch(issues.stream().map(Issue::getSummary).toList());
+    }
+
+    @Override
+    public Verdict apply(Issue issue) {
         ComponentUpgrade info = summaryExtractor.extractInfo(issue.getSummary());
         if (info != null && info.isValid()) {
             logger.infof("%s: Component '%s' upgraded to version '%s'",
                     issue.getKey(), info.component(), info.targetVersion());
-            Collection<String> componentArtifacts = dependencyGroupLookup.findArtifacts(info.component());
-            if (componentArtifacts != null) {
+            DependencyGroupLookup.GroupMatch group = dependencyGroupLookup.findGroup(info.component());
+            if (group != null) {
                 HashMap<String, String> upgradeArtifacts = new HashMap<>();
-                componentArtifacts.forEach(ga -> upgradeArtifacts.put(ga, info.targetVersion()));
-                return manifestChecker.test(new ManifestChecker.ComponentQuery(issue.getKey(), upgradeArtifacts));
+                group.artifacts().forEach(ga -> upgradeArtifacts.put(ga, info.targetVersion()));
+                if (group.fuzzy() && group.score() < fuzzyAcceptThreshold) {
+                    // A less similar name may belong to another component. Verified issues get resolved in Jira, so
+                    // the issue is left to be checked manually rather than decided by a guess, with the suggestion.
+                    logger.warnf("%s: Component %s was only matched to %s, the issue needs to be checked manually",
+                            issue.getKey(), info.component(), group.describe());
+                    return Verdict.of(upgradeArtifacts, new Boolean[manifestChecker.getManifestCount()])
+                            .withNote(String.format("Component '%s' may be %s", info.component(), group.describe()));
+                }
+                Verdict verdict = Verdict.of(upgradeArtifacts,
+                        manifestChecker.testAll(new ManifestChecker.ComponentQuery(issue.getKey(), upgradeArtifacts)));
+                return group.fuzzy() ? verdict.withNote(String.format("Component '%s' matched to %s",
+                        info.component(), group.describe())) : verdict;
             } else {
                 logger.warnf("%s: Can't identify component %s", issue.getKey(), info.component());
             }
         } else {
             logger.warnf("%s: Can't parse issue summary: %s", issue.getKey(), issue.getSummary());
         }
-        return null; // Represents Unknown
+        return Verdict.UNKNOWN;
+    }
+
+    @Override
+    public void close() throws IOException {
+        summaryExtractor.close();
     }
 }
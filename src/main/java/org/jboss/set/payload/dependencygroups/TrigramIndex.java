@@ -0,0 +1,130 @@
+package org.jboss.set.payload.dependencygroups;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fuzzy lookup of values by name, scored by the Dice coefficient of the names' trigram sets.
+ * <p>
+ * Names are lowercased and split into words on anything that is not a letter or a digit, so "Hibernate ORM",
+ * "hibernate-orm" and "hibernate_orm" produce the same trigrams. Each word is padded by spaces, which gives more
+ * weight to word boundaries: "netty-4" is closer to "netty" than to "netty-tcnative".
+ *
+ * @param <T> type of the indexed values
+ */
+class TrigramIndex<T> {
+
+    /**
+     * Query result.
+     *
+     * @param value matched value
+     * @param name matched name
+     * @param score similarity between 0 (nothing in common) and 1 (same trigrams)
+     */
+    record Match<T>(T value, String name, double score) {
+    }
+
+    private final List<String> names;
+    private final List<T> values;
+    private final int[] trigramCounts;
+    /**
+     * Trigram -> ids of names containing the trigram.
+     */
+    private final Map<String, int[]> postings;
+
+    private TrigramIndex(Map<String, T> nameToValue) {
+        List<String> names = new ArrayList<>();
+        List<T> values = new ArrayList<>();
+        List<Integer> trigramCounts = new ArrayList<>();
+        Map<String, List<Integer>> postingLists = new HashMap<>();
+        nameToValue.forEach((name, value) -> {
+            Set<String> trigrams = trigrams(name);
+            if (trigrams.isEmpty()) {
+                return;
+            }
+            int id = names.size();
+            names.add(name);
+            values.add(value);
+            trigramCounts.add(trigrams.size());
+            trigrams.forEach(trigram -> postingLists.computeIfAbsent(trigram, k -> new ArrayList<>()).add(id));
+        });
+
+        this.names = List.copyOf(names);
+        this.values = List.copyOf(values);
+        this.trigramCounts = trigramCounts.stream().mapToInt(Integer::intValue).toArray();
+        Map<String, int[]> map = new HashMap<>();
+        postingLists.forEach((trigram, ids) -> map.put(trigram, ids.stream().mapToInt(Integer::intValue).toArray()));
+        this.postings = Map.copyOf(map);
+    }
+
+    static <T> TrigramIndex<T> of(Map<String, T> nameToValue) {
+        return new TrigramIndex<>(nameToValue);
+    }
+
+    /**
+     * Finds the indexed name most similar to given name.
+     *
+     * @param name name to look up
+     * @param threshold minimal score of a match
+     * @return best match, or null if no name scores at least the threshold, or if the best scoring names belong to
+     * different values and are therefore ambiguous
+     */
+    Match<T> findBest(String name, double threshold) {
+        Set<String> queryTrigrams = trigrams(name);
+        if (queryTrigrams.isEmpty()) {
+            return null;
+        }
+        int[] common = new int[names.size()];
+        for (String trigram : queryTrigrams) {
+            int[] ids = postings.get(trigram);
+            if (ids != null) {
+                for (int id : ids) {
+                    common[id]++;
+                }
+            }
+        }
+
+        int best = -1;
+        double bestScore = 0;
+        boolean ambiguous = false;
+        for (int id = 0; id < common.length; id++) {
+            if (common[id] == 0) {
+                continue;
+            }
+            double score = 2.0 * common[id] / (queryTrigrams.size() + trigramCounts[id]);
+            if (score > bestScore) {
+                ambiguous = false;
+                best = id;
+                bestScore = score;
+            } else if (score == bestScore && values.get(best) != values.get(id)) {
+                ambiguous = true;
+            }
+        }
+        if (best < 0 || bestScore < threshold || ambiguous) {
+            return null;
+        }
+        return new Match<>(values.get(best), names.get(best), bestScore);
+    }
+
+    static Set<String> trigrams(String name) {
+        Set<String> trigrams = new HashSet<>();
+        StringBuilder word = new StringBuilder(" ");
+        for (int i = 0; i <= name.length(); i++) {
+            char c = i < name.length() ? Character.toLowerCase(name.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 1) {
+                word.append(' ');
+                for (int j = 0; j + 3 <= word.length(); j++) {
+                    trigrams.add(word.substring(j, j + 3));
+                }
+                word.setLength(1);
+            }
+        }
+        return trigrams;
+    }
+}
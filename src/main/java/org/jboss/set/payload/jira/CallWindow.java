@@ -0,0 +1,79 @@
+package org.jboss.set.payload.jira;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Bounds the number of calls in flight. Calls over the limit wait in a queue and are started in the order of
+ * submission as the calls before them complete. Unlike with a semaphore, no thread is blocked while waiting.
+ * <p>
+ * Keeps the rate limiter from handing out reservations for every queued call up front: a call only takes a token once
+ * it's started, so throttling slows down the calls that are still queued, and the reservation delays stay short enough
+ * for the retries to fit into their deadlines.
+ */
+class CallWindow {
+
+    private final int size;
+    private final Executor executor;
+    private final Queue<Pending> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    /**
+     * @param size maximum number of calls in flight
+     * @param executor executor starting the queued calls once there is room for them
+     */
+    CallWindow(int size, Executor executor) {
+        this.size = Math.max(1, size);
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the call once there is room in the window. The call occupies the window until its result completes, calls
+     * whose results complete while queued, e.g. are cancelled, are never started.
+     *
+     * @param result result of the call
+     * @param start starts the call; run on the calling thread if there is room, on the executor otherwise
+     */
+    void submit(CompletableFuture<?> result, Runnable start) {
+        synchronized (this) {
+            if (inFlight >= size) {
+                queue.add(new Pending(result, start));
+                return;
+            }
+            inFlight++;
+        }
+        result.whenComplete((value, e) -> release());
+        start.run();
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Passes the slot of a completed call to the next queued one.
+     */
+    private void release() {
+        Pending next;
+        synchronized (this) {
+            do {
+                next = queue.poll();
+            } while (next != null && next.result().isDone());
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        next.result().whenComplete((value, e) -> release());
+        executor.execute(next.start());
+    }
+
+    private record Pending(CompletableFuture<?> result, Runnable start) {
+    }
+}
@@ -0,0 +1,102 @@
+package org.jboss.set.payload.jira;
+
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Watches the outcomes of recent Jira requests and throttles the shared {@link RateLimiter} when the error rate
+ * spikes, giving an overloaded Jira server time to recover instead of hammering it with retries.
+ * <p>
+ * The breaker opens when at least half of the last {@value #WINDOW_SIZE} requests failed. It stays open for at least
+ * the cool-down period and closes on the first successful request after that.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class);
+
+    static final int WINDOW_SIZE = 20;
+    private static final int MINIMUM_FAILURES = WINDOW_SIZE / 2;
+
+    private final RateLimiter rateLimiter;
+    private final RetryStatistics statistics;
+    private final long throttledIntervalMillis;
+    private final long coolDownNanos;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window = new boolean[WINDOW_SIZE]; // true represents a failure
+    private int position = 0;
+    private int failures = 0;
+    private boolean open = false;
+    private long openedAt;
+
+    /**
+     * @param rateLimiter rate limiter to throttle
+     * @param statistics statistics to record the openings to
+     * @param throttledIntervalMillis request interval to enforce while the breaker is open
+     * @param coolDownMillis minimal time the breaker stays open
+     */
+    public CircuitBreaker(RateLimiter rateLimiter, RetryStatistics statistics, long throttledIntervalMillis,
+                          long coolDownMillis) {
+        this(rateLimiter, statistics, throttledIntervalMillis, coolDownMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(RateLimiter rateLimiter, RetryStatistics statistics, long throttledIntervalMillis,
+                   long coolDownMillis, LongSupplier nanoClock) {
+        this.rateLimiter = rateLimiter;
+        this.statistics = statistics;
+        this.throttledIntervalMillis = throttledIntervalMillis;
+        this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(coolDownMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized void recordSuccess() {
+        if (open && nanoClock.getAsLong() - openedAt >= coolDownNanos) {
+            logger.infof("Jira requests are succeeding again, restoring the configured request rate.");
+            open = false;
+            rateLimiter.unthrottle();
+            clearWindow();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void recordFailure() {
+        record(true);
+        if (open) {
+            // Still failing, extend the cool-down period.
+            openedAt = nanoClock.getAsLong();
+        } else if (failures >= MINIMUM_FAILURES) {
+            logger.warnf("%d of last %d Jira requests failed, throttling requests to one per %d ms.",
+                    failures, WINDOW_SIZE, throttledIntervalMillis);
+            open = true;
+            openedAt = nanoClock.getAsLong();
+            rateLimiter.throttle(throttledIntervalMillis);
+            statistics.recordCircuitOpening();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    private void record(boolean failure) {
+        if (window[position]) {
+            failures--;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % WINDOW_SIZE;
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            window[i] = false;
+        }
+        failures = 0;
+        position = 0;
+    }
+}
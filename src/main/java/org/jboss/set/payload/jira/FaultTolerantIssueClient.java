@@ -1,9 +1,12 @@
 package org.jboss.set.payload.jira;
 
 import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.JiraRestClient;
 import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.SearchRestClient;
 import com.atlassian.jira.rest.client.api.domain.Comment;
 import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
 import com.atlassian.jira.rest.client.api.domain.Transition;
 import com.atlassian.jira.rest.client.api.domain.Version;
 import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
@@ -14,12 +17,27 @@ import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
 import io.atlassian.util.concurrent.Promise;
 import org.apache.commons.lang3.stream.Streams;
 import org.jboss.logging.Logger;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.Metrics;
+import org.jboss.set.payload.metrics.RemoteCallEvent;
 
+import java.io.Closeable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.ArrayList;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.jboss.set.payload.jira.JiraConstants.CLOSED;
@@ -30,44 +48,155 @@ import static org.jboss.set.payload.jira.JiraConstants.VERIFIED;
 
 /**
  * Jira client wrapper that implements retry & rate limiting logic.
+ * <p>
+ * Calls are asynchronous: waiting for the rate limiter, for the backoff between retries and for the call deadline is
+ * done by scheduling on a single scheduler thread, and the JRJC promises complete on the HTTP client threads, so many
+ * in-flight calls don't occupy any threads of the caller. The blocking methods just wait for their asynchronous
+ * counterparts.
+ * <p>
+ * Only a limited number of calls is in flight at a time, the others wait in a queue without taking a rate limiter
+ * token, see {@link CallWindow}.
+ * <p>
+ * Closing the client stops the scheduler thread; calls still waiting on it never complete.
  */
-public class FaultTolerantIssueClient {
+public class FaultTolerantIssueClient implements Closeable {
 
     private static final Logger logger = Logger.getLogger(FaultTolerantIssueClient.class);
 
     private static final String[] RESOLVED_STATES = new String[] {RESOLVED, READY_FOR_QA, VERIFIED, CLOSED};
+    private static final long CIRCUIT_BREAKER_COOL_DOWN_MILLIS = 60_000;
+    private static final int PREFETCH_BATCH_SIZE = 50;
+    private static final Set<String> PREFETCH_FIELDS = Set.of("*navigable", "comment");
 
     private final IssueRestClient issueRestClient;
-    private final Invoker invoker;
+    private final SearchRestClient searchRestClient;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AsyncInvoker invoker;
+    private final IssueCache issueCache;
+    private final RetryStatistics retryStatistics = new RetryStatistics();
 
     /**
      * If set to true, all issue modification operations will be no-ops.
      */
     private final boolean dryMode;
 
-    public FaultTolerantIssueClient(IssueRestClient issueRestClient, long spacingInMillis, boolean dryMode) {
-        this.issueRestClient = issueRestClient;
+    /**
+     * @param jiraClient Jira client, its HTTP client should be decorated by {@link ResponseCapture} so that
+     *                   Retry-After headers can be honored
+     * @param rateLimiter rate limiter applied to every request sent through this client
+     * @param maxInFlight maximum number of calls in flight, including the ones waiting for the rate limiter or for
+     *                    a retry
+     * @param retryPolicy policy deciding which failed requests are retried
+     * @param throttledIntervalMillis request interval enforced by the circuit breaker when error rate spikes
+     * @param issueCache cache of retrieved issues
+     * @param dryMode if true, issue modification operations are no-ops
+     */
+    public FaultTolerantIssueClient(JiraRestClient jiraClient, RateLimiter rateLimiter, int maxInFlight,
+                                    RetryPolicy retryPolicy, long throttledIntervalMillis, IssueCache issueCache,
+                                    boolean dryMode) {
+        this.issueRestClient = jiraClient.getIssueClient();
+        this.searchRestClient = jiraClient.getSearchClient();
+        this.issueCache = issueCache;
         this.dryMode = dryMode;
 
-        TimeSpacingInvoker timeSpacingInvoker = new TimeSpacingInvoker(spacingInMillis);
-        this.invoker = new RetryingInvoker(timeSpacingInvoker);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(rateLimiter, retryStatistics, throttledIntervalMillis,
+                CIRCUIT_BREAKER_COOL_DOWN_MILLIS);
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jira-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Deadline timeouts are cancelled once the calls complete, don't let them pile up in the queue.
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.invoker = new AsyncInvoker(rateLimiter, new CallWindow(maxInFlight, scheduler), retryPolicy, circuitBreaker,
+                retryStatistics, scheduler);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public RetryStatistics getRetryStatistics() {
+        return retryStatistics;
     }
 
     public Issue getIssue(String issueKey) {
+        return await(getIssueAsync(issueKey));
+    }
+
+    public CompletableFuture<Issue> getIssueAsync(String issueKey) {
+        Issue issue = issueCache.get(issueKey);
+        if (issue != null) {
+            return CompletableFuture.completedFuture(issue);
+        }
         Callable<Promise<Issue>> callable = () -> issueRestClient.getIssue(issueKey);
-        return invoker.invoke(callable);
+        return invoker.invoke(Metrics.JIRA_GET_ISSUE, issueKey, callable).thenApply(retrieved -> {
+            issueCache.put(retrieved);
+            return retrieved;
+        });
+    }
+
+    /**
+     * Retrieves issues that are not cached yet via "key in (...)" JQL searches and puts them into the cache, so that
+     * following {@link #getIssue(String)} calls don't need to contact Jira. The searches are sent concurrently.
+     */
+    public void prefetch(Collection<String> issueKeys) {
+        List<String> missing = issueKeys.stream()
+                .distinct()
+                .filter(key -> !issueCache.contains(key))
+                .toList();
+        List<CompletableFuture<Void>> searches = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += PREFETCH_BATCH_SIZE) {
+            List<String> batch = missing.subList(i, Math.min(i + PREFETCH_BATCH_SIZE, missing.size()));
+            String jql = "key in (" + String.join(", ", batch) + ")";
+            searches.add(searchJqlAsync(jql, batch.size(), 0, PREFETCH_FIELDS).handle((result, e) -> {
+                if (e == null) {
+                    result.getIssues().forEach(issueCache::put);
+                    logger.debugf("Prefetched %d issues: %s", batch.size(), batch);
+                } else if (unwrap(e) instanceof RestClientException restClientException) {
+                    // E.g. one of the issues doesn't exist or isn't visible. Issues will be retrieved one by one
+                    // instead.
+                    logger.warnf("Unable to prefetch issues %s: %s", batch, restClientException.getMessage());
+                } else {
+                    throw new CompletionException(unwrap(e));
+                }
+                return null;
+            }));
+        }
+        searches.forEach(FaultTolerantIssueClient::await);
+    }
+
+    public SearchResult searchJql(String jql, int maxResults, int startAt, Set<String> fields) {
+        return await(searchJqlAsync(jql, maxResults, startAt, fields));
+    }
+
+    public CompletableFuture<SearchResult> searchJqlAsync(String jql, int maxResults, int startAt, Set<String> fields) {
+        Callable<Promise<SearchResult>> callable = () -> searchRestClient.searchJql(jql, maxResults, startAt, fields);
+        return invoker.invoke(Metrics.JIRA_SEARCH, null, callable);
     }
 
     public void addComment(final Issue issue, final String comment) {
+        await(addCommentAsync(issue, comment));
+    }
+
+    public CompletableFuture<Void> addCommentAsync(final Issue issue, final String comment) {
         logger.infof("%s: Commenting on issue %s: %s", issue.getKey(), dryModeFlag(), comment);
-        if (!dryMode) {
-            Callable<Promise<Void>> callable = () -> issueRestClient.addComment(issue.getCommentsUri(),
-                    Comment.createWithGroupLevel(comment, "Red Hat Employee"));
-            invoker.invoke(callable);
+        if (dryMode) {
+            return CompletableFuture.completedFuture(null);
         }
+        Callable<Promise<Void>> callable = () -> issueRestClient.addComment(issue.getCommentsUri(),
+                Comment.createWithGroupLevel(comment, "Red Hat Employee"));
+        return invoker.invoke(Metrics.JIRA_ADD_COMMENT, issue.getKey(), callable)
+                .thenRun(() -> issueCache.invalidate(issue.getKey()));
     }
 
     public void updateIssue(final Issue issue, final Collection<String> fixVersions, final String label) {
+        await(updateIssueAsync(issue, fixVersions, label));
+    }
+
+    public CompletableFuture<Void> updateIssueAsync(final Issue issue, final Collection<String> fixVersions,
+                                                    final String label) {
         boolean change = false;
 
         Set<String> fixVersionsToSet = Streams.of(issue.getFixVersions())
@@ -80,7 +209,8 @@ public class FaultTolerantIssueClient {
             logger.infof("%s: Fix versions already set.", issue.getKey());
         }
 
-        Set<String> labels = issue.getLabels();
+        // A copy, the issue may be held by the issue cache and must keep the labels it has in Jira, in dry mode too.
+        Set<String> labels = new HashSet<>(issue.getLabels());
         if (!labels.contains(label)) {
             labels.add(label);
             change = true;
@@ -97,109 +227,252 @@ public class FaultTolerantIssueClient {
                         .setFixVersionsNames(fixVersionsToSet)
                         .build();
                 Callable<Promise<Void>> callable = () -> issueRestClient.updateIssue(issue.getKey(), issueInput);
-                invoker.invoke(callable);
+                return invoker.invoke(Metrics.JIRA_UPDATE_ISSUE, issue.getKey(), callable)
+                        .thenRun(() -> issueCache.invalidate(issue.getKey()));
             }
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     public void transitionToResolved(final Issue issue) {
+        await(transitionToResolvedAsync(issue));
+    }
+
+    public CompletableFuture<Void> transitionToResolvedAsync(final Issue issue) {
         if (issue.getStatus().getName().equals(NEW)) {
             logger.warnf("%s: Transitioning from NEW state is not implemented currently.", issue.getKey());
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         if (Arrays.stream(RESOLVED_STATES).anyMatch(state -> state.equals(issue.getStatus().getName()))) {
             logger.infof("%s: Issue is already resolved (%s)", issue.getKey(), issue.getStatus().getName());
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         logger.infof("%s: Transitioning issue to Resolved %s", issue.getKey(), dryModeFlag());
-        int transitionId = getResolveTransitionId(issue);
-        TransitionInput transitionInput = new TransitionInput(transitionId, List.of(
-                new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", "Done"))));
-        if (!dryMode) {
+        return getResolveTransitionIdAsync(issue).thenCompose(transitionId -> {
+            TransitionInput transitionInput = new TransitionInput(transitionId, List.of(
+                    new FieldInput("resolution", ComplexIssueInputFieldValue.with("name", "Done"))));
+            if (dryMode) {
+                return CompletableFuture.completedFuture(null);
+            }
             Callable<Promise<Void>> callable = () -> issueRestClient.transition(issue, transitionInput);
-            invoker.invoke(callable);
-        }
+            return invoker.invoke(Metrics.JIRA_TRANSITION, issue.getKey(), callable)
+                    .thenRun(() -> issueCache.invalidate(issue.getKey()));
+        });
     }
 
-    private int getResolveTransitionId(Issue issue) {
-        Iterable<Transition> transitions = issueRestClient.getTransitions(issue).claim();
-        for (Transition transition : transitions) {
-            if ("Resolve Issue".equals(transition.getName())) {
-                return transition.getId();
+    private CompletableFuture<Integer> getResolveTransitionIdAsync(Issue issue) {
+        Callable<Promise<Iterable<Transition>>> callable = () -> issueRestClient.getTransitions(issue);
+        return invoker.invoke(Metrics.JIRA_GET_TRANSITIONS, issue.getKey(), callable).thenApply(transitions -> {
+            for (Transition transition : transitions) {
+                if ("Resolve Issue".equals(transition.getName())) {
+                    return transition.getId();
+                }
             }
-        }
-        throw new RuntimeException("Transition to Resolved is not available.");
+            throw new RuntimeException("Transition to Resolved is not available.");
+        });
     }
 
     private String dryModeFlag() {
         return dryMode ? "(dry mode)" : "";
     }
 
-    private interface Invoker {
-        <T> T invoke(Callable<Promise<T>> callable);
+    /**
+     * Waits for the call to complete, rethrowing its failure as is.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @return the actual failure of a call, as a runtime exception so that it can be handled by the retry policy
+     */
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RestClientException(cause);
     }
 
-    private static class TimeSpacingInvoker implements Invoker {
+    /**
+     * Sends Jira client calls, delaying them according to the rate limit and retrying the failed ones.
+     */
+    private static class AsyncInvoker {
 
-        private final long spacingInMillis;
-        private long lastRequest = 0;
+        private final RateLimiter rateLimiter;
+        private final CallWindow window;
+        private final RetryPolicy retryPolicy;
+        private final CircuitBreaker circuitBreaker;
+        private final RetryStatistics statistics;
+        private final ScheduledExecutorService scheduler;
 
-        public TimeSpacingInvoker(long spacingInMillis) {
-            this.spacingInMillis = spacingInMillis;
+        public AsyncInvoker(RateLimiter rateLimiter, CallWindow window, RetryPolicy retryPolicy,
+                            CircuitBreaker circuitBreaker, RetryStatistics statistics,
+                            ScheduledExecutorService scheduler) {
+            this.rateLimiter = rateLimiter;
+            this.window = window;
+            this.retryPolicy = retryPolicy;
+            this.circuitBreaker = circuitBreaker;
+            this.statistics = statistics;
+            this.scheduler = scheduler;
         }
 
-        @Override
-        public <T> T invoke(Callable<Promise<T>> callable) {
-            try {
-                // If rate limit is set, make sure Jira client call is delayed according to configuration.
-                if (lastRequest > 0 && spacingInMillis > 0) {
-                    long elapsed = System.currentTimeMillis() - lastRequest;
-                    if (elapsed < spacingInMillis) {
-                        long delay = spacingInMillis - elapsed;
-                        logger.debugf("Delaying Jira client call for %d ms.", delay);
-                        Thread.sleep(delay);
-                    }
+        /**
+         * @param timerName timer measuring the calls, including the wait for the call window, the rate limit delays
+         *                  and retries
+         * @param issueKey key of the issue the call concerns, or null; only reported by the Flight Recorder events
+         * @param callable the Jira client call
+         * @return future completed with the result of the call, cancelling it cancels the pending attempts
+         */
+        public <T> CompletableFuture<T> invoke(String timerName, String issueKey, Callable<Promise<T>> callable) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            long start = System.nanoTime();
+            result.whenComplete((value, e) -> {
+                if (!result.isCancelled()) {
+                    Metrics.timer(timerName).record(System.nanoTime() - start, e == null);
                 }
-                return callable.call().claim();
-            } catch (RuntimeException e) {
-                // Rethrow runtime exceptions as we need to handle them in RetryingInvoker.
-                throw e;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            } finally {
-                lastRequest = System.currentTimeMillis();
+            });
+            Call<T> call = new Call<>(timerName, issueKey, callable, result);
+            window.submit(result, () -> attempt(call, 1, 0));
+            return result;
+        }
+
+        /**
+         * @param deadline {@link System#nanoTime()} based deadline of the call, including all retries; set by the
+         *                 first attempt
+         */
+        private <T> void attempt(Call<T> call, int attempt, long deadline) {
+            // If rate limit is set, make sure Jira client call is delayed according to configuration.
+            long delay = rateLimiter.reserve();
+            // The deadline starts when the call leaves the rate limiter, so that calls queued behind many others
+            // don't time out before they're sent.
+            long callDeadline = attempt == 1 ? System.nanoTime() + delay + retryPolicy.getDeadlineNanos() : deadline;
+            if (delay > 0) {
+                logger.debugf("Delayed Jira client call for %d ms.", TimeUnit.NANOSECONDS.toMillis(delay));
+                Metrics.timer(Metrics.JIRA_RATE_LIMIT_WAIT).record(delay, true);
+                scheduler.schedule(() -> send(call, attempt, callDeadline), delay, TimeUnit.NANOSECONDS);
+            } else {
+                send(call, attempt, callDeadline);
             }
         }
-    }
 
-    private static class RetryingInvoker implements Invoker {
+        private <T> void send(Call<T> call, int attempt, long deadline) {
+            if (call.result().isDone()) {
+                // Cancelled by the caller.
+                return;
+            }
+            ResponseCapture capture = new ResponseCapture();
+            RemoteCallEvent event = FlightRecording.isEnabled()
+                    ? new RemoteCallEvent(call.timerName(), call.issueKey()) : null;
+            Promise<T> promise;
+            capture.bind();
+            try {
+                promise = call.callable().call();
+            } catch (Exception e) {
+                RuntimeException failure = unwrap(e);
+                complete(event, attempt, capture, failure);
+                onFailure(call, attempt, deadline, capture, failure);
+                return;
+            } finally {
+                capture.unbind();
+            }
 
-        private final Invoker delegate;
+            // Exactly one of success, failure and timeout settles the attempt.
+            AtomicBoolean settled = new AtomicBoolean();
+            ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+                if (settled.compareAndSet(false, true)) {
+                    promise.cancel(true);
+                    RuntimeException failure = new RestClientException(new TimeoutException());
+                    complete(event, attempt, capture, failure);
+                    onFailure(call, attempt, deadline, capture, failure);
+                }
+            }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            call.result().whenComplete((value, e) -> {
+                if (call.result().isCancelled()) {
+                    promise.cancel(true);
+                }
+            });
+            promise.done(value -> {
+                if (settled.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    complete(event, attempt, capture, null);
+                    circuitBreaker.recordSuccess();
+                    call.result().complete(value);
+                }
+            }).fail(e -> {
+                if (settled.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    RuntimeException failure = unwrap(e);
+                    complete(event, attempt, capture, failure);
+                    onFailure(call, attempt, deadline, capture, failure);
+                }
+            });
+        }
 
-        public RetryingInvoker(Invoker delegate) {
-            this.delegate = delegate;
+        private <T> void onFailure(Call<T> call, int attempt, long deadline, ResponseCapture capture,
+                                   RuntimeException e) {
+            if (!retryPolicy.isRetryable(e)) {
+                call.result().completeExceptionally(e);
+                return;
+            }
+            circuitBreaker.recordFailure();
+            if (attempt >= retryPolicy.getMaxAttempts()) {
+                logger.errorf("Jira client invocation failed after %d attempts.", attempt);
+                statistics.recordExhausted();
+                call.result().completeExceptionally(e);
+                return;
+            }
+            long backoff = retryPolicy.backoffMillis(attempt, capture.getRetryAfterMillis());
+            // The retry also has to wait for its rate limiter reservation, which runs concurrently with the backoff.
+            long retryDelay = Math.max(TimeUnit.MILLISECONDS.toNanos(backoff), rateLimiter.peekDelay());
+            if (retryDelay >= deadline - System.nanoTime()) {
+                logger.errorf("Jira client invocation failed, deadline doesn't allow another attempt.");
+                statistics.recordExhausted();
+                call.result().completeExceptionally(e);
+                return;
+            }
+            logger.warnf("Jira client invocation failed (%s), retrying in %d ms (attempt %d of %d).",
+                    describe(e, capture), backoff, attempt + 1, retryPolicy.getMaxAttempts());
+            statistics.recordRetry(backoff);
+            scheduler.schedule(() -> attempt(call, attempt + 1, deadline), backoff, TimeUnit.MILLISECONDS);
         }
 
-        @Override
-        public <T> T invoke(Callable<Promise<T>> callable) {
-            return invoke(callable, 2);
+        private static void complete(RemoteCallEvent event, int attempt, ResponseCapture capture,
+                                     RuntimeException e) {
+            if (event != null) {
+                event.attempt = attempt;
+                event.status = capture.getStatusCode();
+                event.bytes = capture.getContentLength();
+                event.complete(e);
+            }
         }
 
-        private <T> T invoke(Callable<Promise<T>> callable, int attempts) {
-            try {
-                return delegate.invoke(callable);
-            } catch (RestClientException e) {
-                // Here we are only retrying in case the previous request resulted in HTTP 401.
-                if (e.getStatusCode().or(0).equals(401)) {
-                    if (attempts - 1 > 0) {
-                        logger.errorf(e, "Exception caught from Jira client invocation, retrying %d more attempts", attempts);
-                        return invoke(callable, attempts - 1);
-                    } else {
-                        throw e;
-                    }
-                }
-                throw e;
+        private static String describe(RuntimeException e, ResponseCapture capture) {
+            if (capture.getStatusCode() > 0) {
+                return "HTTP " + capture.getStatusCode();
             }
+            return e.getCause() != null ? e.getCause().toString() : e.toString();
         }
     }
+
+    /**
+     * @param timerName timer measuring the call
+     * @param issueKey key of the issue the call concerns, or null
+     * @param callable the Jira client call
+     * @param result future to complete with the result
+     */
+    private record Call<T>(String timerName, String issueKey, Callable<Promise<T>> callable,
+                           CompletableFuture<T> result) {
+    }
 }
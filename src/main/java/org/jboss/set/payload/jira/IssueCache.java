@@ -0,0 +1,41 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of Jira issues retrieved during a single run.
+ * <p>
+ * The same incorporated issue is typically needed by several issue consumers, and the same issue can be incorporated
+ * in several component upgrades. Issues modified by the tool are evicted, so the next read sees the current state.
+ */
+public class IssueCache {
+
+    private final Map<String, Issue> issues = new ConcurrentHashMap<>();
+
+    /**
+     * @return cached issue, or null
+     */
+    public Issue get(String issueKey) {
+        return issues.get(issueKey);
+    }
+
+    public boolean contains(String issueKey) {
+        return issues.containsKey(issueKey);
+    }
+
+    public void put(Issue issue) {
+        issues.put(issue.getKey(), issue);
+    }
+
+    public void invalidate(String issueKey) {
+        issues.remove(issueKey);
+    }
+
+    Collection<Issue> issues() {
+        return issues.values();
+    }
+}
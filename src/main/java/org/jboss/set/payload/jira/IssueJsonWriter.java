@@ -0,0 +1,185 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.BasicProject;
+import com.atlassian.jira.rest.client.api.domain.Comment;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.atlassian.jira.rest.client.api.domain.IssueLink;
+import com.atlassian.jira.rest.client.api.domain.IssueLinkType;
+import com.atlassian.jira.rest.client.api.domain.IssueType;
+import com.atlassian.jira.rest.client.api.domain.Resolution;
+import com.atlassian.jira.rest.client.api.domain.Status;
+import com.atlassian.jira.rest.client.api.domain.Version;
+import com.atlassian.jira.rest.client.internal.json.IssueJsonParser;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.net.URI;
+
+/**
+ * Serializes issues back to the Jira REST API v2 JSON representation, so that they can be stored and later parsed
+ * by JRJC's {@link IssueJsonParser}.
+ * <p>
+ * Only the parts of an issue this tool works with are written: key, summary, type, status, resolution, project,
+ * dates, fix versions, labels, comments, issue links and the remaining (custom) fields with their names.
+ */
+public final class IssueJsonWriter {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+    private IssueJsonWriter() {
+    }
+
+    public static JSONObject write(Issue issue) throws JSONException {
+        JSONObject fields = new JSONObject();
+        JSONObject names = new JSONObject();
+
+        // Custom fields are stored as raw JSON values by the parser.
+        for (IssueField field : issue.getFields()) {
+            fields.put(field.getId(), field.getValue() != null ? field.getValue() : JSONObject.NULL);
+            if (field.getName() != null) {
+                names.put(field.getId(), field.getName());
+            }
+        }
+
+        fields.put("summary", issue.getSummary());
+        fields.put("description", issue.getDescription() != null ? issue.getDescription() : JSONObject.NULL);
+        fields.put("issuetype", write(issue.getIssueType()));
+        fields.put("status", write(issue.getStatus()));
+        fields.put("resolution", issue.getResolution() != null ? write(issue.getResolution()) : JSONObject.NULL);
+        fields.put("project", write(issue.getProject()));
+        fields.put("created", formatDateTime(issue.getCreationDate()));
+        fields.put("updated", formatDateTime(issue.getUpdateDate()));
+        fields.put("labels", new JSONArray(issue.getLabels()));
+
+        JSONArray fixVersions = new JSONArray();
+        if (issue.getFixVersions() != null) {
+            for (Version version : issue.getFixVersions()) {
+                fixVersions.put(write(version));
+            }
+        }
+        fields.put("fixVersions", fixVersions);
+
+        JSONArray comments = new JSONArray();
+        for (Comment comment : issue.getComments()) {
+            comments.put(write(comment));
+        }
+        fields.put("comment", new JSONObject()
+                .put("startAt", 0)
+                .put("maxResults", comments.length())
+                .put("total", comments.length())
+                .put("comments", comments));
+
+        JSONArray issueLinks = new JSONArray();
+        if (issue.getIssueLinks() != null) {
+            for (IssueLink issueLink : issue.getIssueLinks()) {
+                issueLinks.put(write(issueLink));
+            }
+        }
+        fields.put("issuelinks", issueLinks);
+
+        return new JSONObject()
+                .put("id", String.valueOf(issue.getId()))
+                .put("key", issue.getKey())
+                .put("self", uri(issue.getSelf()))
+                .put("fields", fields)
+                .put("names", names);
+    }
+
+    /**
+     * Parses issue from its JSON representation, as returned by the Jira REST API or written by this class.
+     */
+    public static Issue parse(JSONObject json) throws JSONException {
+        return new IssueJsonParser().parse(json);
+    }
+
+    private static JSONObject write(IssueType issueType) throws JSONException {
+        return new JSONObject()
+                .put("self", uri(issueType.getSelf()))
+                .put("id", issueType.getId())
+                .put("name", issueType.getName())
+                .put("subtask", issueType.isSubtask())
+                .put("description", nonNull(issueType.getDescription()))
+                .put("iconUrl", uri(issueType.getIconUri()));
+    }
+
+    private static JSONObject write(Status status) throws JSONException {
+        return new JSONObject()
+                .put("self", uri(status.getSelf()))
+                .put("id", status.getId())
+                .put("name", status.getName())
+                .put("description", nonNull(status.getDescription()))
+                .put("iconUrl", uri(status.getIconUrl()));
+    }
+
+    private static JSONObject write(Resolution resolution) throws JSONException {
+        return new JSONObject()
+                .put("self", uri(resolution.getSelf()))
+                .put("id", resolution.getId())
+                .put("name", resolution.getName())
+                .put("description", nonNull(resolution.getDescription()));
+    }
+
+    private static JSONObject write(BasicProject project) throws JSONException {
+        return new JSONObject()
+                .put("self", uri(project.getSelf()))
+                .put("id", project.getId())
+                .put("key", project.getKey())
+                .put("name", nonNull(project.getName()));
+    }
+
+    private static JSONObject write(Version version) throws JSONException {
+        JSONObject json = new JSONObject()
+                .put("self", uri(version.getSelf()))
+                .put("id", version.getId())
+                .put("name", version.getName())
+                .put("archived", version.isArchived())
+                .put("released", version.isReleased());
+        if (version.getDescription() != null) {
+            json.put("description", version.getDescription());
+        }
+        if (version.getReleaseDate() != null) {
+            json.put("releaseDate", formatDateTime(version.getReleaseDate()));
+        }
+        return json;
+    }
+
+    private static JSONObject write(Comment comment) throws JSONException {
+        return new JSONObject()
+                .put("self", uri(comment.getSelf()))
+                .put("id", comment.getId())
+                .put("body", comment.getBody())
+                .put("created", formatDateTime(comment.getCreationDate()))
+                .put("updated", formatDateTime(comment.getUpdateDate()));
+    }
+
+    private static JSONObject write(IssueLink issueLink) throws JSONException {
+        IssueLinkType type = issueLink.getIssueLinkType();
+        boolean outbound = IssueLinkType.Direction.OUTBOUND.equals(type.getDirection());
+        JSONObject target = new JSONObject()
+                .put("key", issueLink.getTargetIssueKey())
+                .put("self", uri(issueLink.getTargetIssueUri()));
+        return new JSONObject()
+                .put("type", new JSONObject()
+                        .put("name", type.getName())
+                        .put("inward", nonNull(type.getDescription()))
+                        .put("outward", nonNull(type.getDescription())))
+                .put(outbound ? "outwardIssue" : "inwardIssue", target);
+    }
+
+    private static String formatDateTime(DateTime dateTime) {
+        return dateTime != null ? DATE_TIME_FORMATTER.print(dateTime) : null;
+    }
+
+    private static String uri(URI uri) {
+        return uri != null ? uri.toString() : "";
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,30 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueLink;
+import com.atlassian.jira.rest.client.api.domain.IssueLinkType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.jboss.set.payload.jira.JiraConstants.INCORPORATES;
+
+public final class IssueLinks {
+    private IssueLinks() {
+    }
+
+    /**
+     * @return keys of issues incorporated by given issue (outbound "Incorporates" links)
+     */
+    public static List<String> incorporatedIssueKeys(Issue issue) {
+        if (issue.getIssueLinks() != null) {
+            return StreamSupport.stream(issue.getIssueLinks().spliterator(), false)
+                    .filter(l -> INCORPORATES.equals(l.getIssueLinkType().getName())
+                            && IssueLinkType.Direction.OUTBOUND.equals(l.getIssueLinkType().getDirection()))
+                    .map(IssueLink::getTargetIssueKey)
+                    .toList();
+        }
+        return Collections.emptyList();
+    }
+}
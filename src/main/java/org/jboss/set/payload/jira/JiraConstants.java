@@ -16,4 +16,6 @@ public final class JiraConstants {
     public static final String WONT_DO = "Won't do";
 
     public static final String TARGET_RELEASE = "Target Release";
+
+    public static final String INCORPORATES = "Incorporates";
 }
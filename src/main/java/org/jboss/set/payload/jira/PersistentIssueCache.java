@@ -0,0 +1,155 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Issue cache that survives between runs.
+ * <p>
+ * Issues are stored in a gzipped JSON file, together with the time of the run that stored them. On the next run,
+ * {@link #revalidate(FaultTolerantIssueClient)} asks Jira which of the cached issues have been updated since then and
+ * evicts them, so only the changed issues have to be retrieved again.
+ * <p>
+ * Only issues used during the current run are written back, so that the file doesn't grow indefinitely.
+ */
+public class PersistentIssueCache extends IssueCache {
+
+    private static final Logger logger = Logger.getLogger(PersistentIssueCache.class);
+
+    private static final int REVALIDATION_BATCH_SIZE = 50;
+    private static final DateTimeFormatter JQL_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm")
+            .withZone(ZoneOffset.UTC);
+
+    private final Path file;
+    private final long runStart = System.currentTimeMillis();
+    private final Set<String> usedKeys = ConcurrentHashMap.newKeySet();
+    private long lastRun = 0;
+
+    public PersistentIssueCache(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            try {
+                load();
+            } catch (IOException | JSONException e) {
+                logger.warnf(e, "Can't read the issue cache file %s, starting with an empty cache.", file);
+            }
+        }
+    }
+
+    @Override
+    public Issue get(String issueKey) {
+        Issue issue = super.get(issueKey);
+        if (issue != null) {
+            usedKeys.add(issueKey);
+        }
+        return issue;
+    }
+
+    @Override
+    public void put(Issue issue) {
+        super.put(issue);
+        usedKeys.add(issue.getKey());
+    }
+
+    /**
+     * Evicts cached issues that have been updated in Jira since they were stored.
+     */
+    public void revalidate(FaultTolerantIssueClient issueClient) {
+        List<Issue> cached = new ArrayList<>(issues());
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        // The JQL date is interpreted in the time zone of the Jira user, which we don't know, hence the one day margin.
+        // Actual change is then determined by comparing the precise update timestamps.
+        String since = JQL_DATE_FORMATTER.format(Instant.ofEpochMilli(lastRun).minus(1, ChronoUnit.DAYS));
+        int evicted = 0;
+        for (int i = 0; i < cached.size(); i += REVALIDATION_BATCH_SIZE) {
+            List<Issue> batch = cached.subList(i, Math.min(i + REVALIDATION_BATCH_SIZE, cached.size()));
+            List<String> keys = batch.stream().map(Issue::getKey).toList();
+            String jql = String.format("key in (%s) AND updated >= \"%s\"", String.join(", ", keys), since);
+            try {
+                SearchResult result = issueClient.searchJql(jql, batch.size(), 0, Set.of("updated"));
+                for (Issue updated : result.getIssues()) {
+                    Issue issue = super.get(updated.getKey());
+                    if (issue != null && (issue.getUpdateDate() == null
+                            || !issue.getUpdateDate().isEqual(updated.getUpdateDate()))) {
+                        invalidate(updated.getKey());
+                        evicted++;
+                    }
+                }
+            } catch (RestClientException e) {
+                // E.g. some of the issues were deleted in the meantime.
+                logger.warnf("Unable to revalidate cached issues %s, evicting them: %s", keys, e.getMessage());
+                keys.forEach(this::invalidate);
+                evicted += keys.size();
+            }
+        }
+        logger.infof("Revalidated %d cached issues, %d were changed.", cached.size(), evicted);
+    }
+
+    /**
+     * Writes issues used during this run into the cache file.
+     */
+    public void save() throws IOException {
+        try {
+            JSONArray issues = new JSONArray();
+            for (Issue issue : issues()) {
+                if (usedKeys.contains(issue.getKey())) {
+                    issues.put(IssueJsonWriter.write(issue));
+                }
+            }
+            JSONObject json = new JSONObject()
+                    .put("lastRun", runStart)
+                    .put("issues", issues);
+
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.infof("Stored %d issues into the issue cache.", issues.length());
+        } catch (JSONException e) {
+            throw new IOException("Can't serialize issues", e);
+        }
+    }
+
+    private void load() throws IOException, JSONException {
+        String content;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        JSONObject json = new JSONObject(content);
+        lastRun = json.getLong("lastRun");
+        JSONArray issues = json.getJSONArray("issues");
+        for (int i = 0; i < issues.length(); i++) {
+            super.put(IssueJsonWriter.parse(issues.getJSONObject(i)));
+        }
+        logger.infof("Loaded %d issues from the issue cache.", issues.length());
+    }
+}
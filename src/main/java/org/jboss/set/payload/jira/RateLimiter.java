@@ -0,0 +1,115 @@
+package org.jboss.set.payload.jira;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread safe token bucket rate limiter.
+ * <p>
+ * The bucket holds up to {@code burst} tokens and is refilled with one token per configured interval. Each request
+ * takes one token by {@link #reserve()}, which never blocks: requests that fit in the bucket may go out immediately,
+ * others are given a reservation in the future, and it's up to the caller to send them no sooner, e.g. by scheduling
+ * the send. Reservations are handed out in the order of arrival, so callers are served fairly. Tokens missing from
+ * the bucket are debt repaid by the following refills.
+ * <p>
+ * The limiter can be temporarily throttled (see {@link CircuitBreaker}), in which case bursts are disabled and requests
+ * are spaced by at least the throttled interval.
+ */
+public class RateLimiter {
+
+    private final LongSupplier nanoClock;
+    private final long intervalNanos;
+    private final int burst;
+
+    private double tokens;
+    private long lastRefill;
+    private long throttledIntervalNanos = 0;
+
+    /**
+     * @param intervalMillis time needed to refill a single token, i.e. the sustained rate is one request per interval.
+     *                       Zero or negative value disables the rate limiting.
+     * @param burst maximum number of requests that can be sent without waiting
+     */
+    public RateLimiter(long intervalMillis, int burst) {
+        this(intervalMillis, burst, System::nanoTime);
+    }
+
+    RateLimiter(long intervalMillis, int burst, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the bucket without waiting for it.
+     *
+     * @return time in nanoseconds after which the caller is allowed to send the request
+     */
+    synchronized long reserve() {
+        long interval = Math.max(intervalNanos, throttledIntervalNanos);
+        if (interval == 0) {
+            return 0;
+        }
+        refill(interval);
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-tokens * interval);
+    }
+
+    /**
+     * @return time in nanoseconds a reservation made now would have to wait, the bucket is left as is
+     */
+    synchronized long peekDelay() {
+        long interval = Math.max(intervalNanos, throttledIntervalNanos);
+        if (interval == 0) {
+            return 0;
+        }
+        refill(interval);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * interval);
+    }
+
+    /**
+     * Slows the limiter down, so that requests are sent at most once per given interval.
+     */
+    public synchronized void throttle(long minIntervalMillis) {
+        setThrottledInterval(TimeUnit.MILLISECONDS.toNanos(Math.max(0, minIntervalMillis)));
+        tokens = Math.min(tokens, 1);
+    }
+
+    /**
+     * Restores the configured rate.
+     */
+    public synchronized void unthrottle() {
+        setThrottledInterval(0);
+    }
+
+    private void refill(long interval) {
+        int capacity = throttledIntervalNanos > 0 ? 1 : burst;
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / interval);
+        lastRefill = now;
+    }
+
+    /**
+     * Changes the throttled interval. Tokens owed by the reservations already handed out are converted to the new
+     * interval, so that the time the debt is repaid by stays the same, rather than being stretched or shortened by the
+     * ratio of the intervals.
+     */
+    private void setThrottledInterval(long newThrottledIntervalNanos) {
+        long interval = Math.max(intervalNanos, throttledIntervalNanos);
+        long newInterval = Math.max(intervalNanos, newThrottledIntervalNanos);
+        if (interval > 0) {
+            refill(interval);
+            if (tokens < 0 && newInterval > 0) {
+                tokens = tokens * interval / newInterval;
+            }
+        } else {
+            lastRefill = nanoClock.getAsLong();
+        }
+        throttledIntervalNanos = newThrottledIntervalNanos;
+    }
+}
@@ -0,0 +1,125 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.httpclient.api.Request;
+import com.atlassian.httpclient.api.Response;
+import com.atlassian.httpclient.api.ResponsePromise;
+import com.atlassian.httpclient.api.ResponsePromises;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Holds metadata of the HTTP response received by a single Jira client call.
+ * <p>
+ * JRJC doesn't expose response headers - a failed request is reported as a {@code RestClientException} carrying only
+ * the status code. To be able to honor the Retry-After header, the HTTP client used by JRJC is decorated (see
+ * {@link #decorate(DisposableHttpClient)}) so that responses of requests created while a capture is bound to the
+ * current thread are recorded into that capture.
+ */
+public final class ResponseCapture {
+
+    private static final ThreadLocal<ResponseCapture> CURRENT = new ThreadLocal<>();
+
+    private volatile int statusCode;
+    private volatile String retryAfter;
+    private volatile long contentLength = -1;
+
+    /**
+     * Binds this capture to the current thread. Requests created by the JRJC client on this thread until
+     * {@link #unbind()} is called will record their responses here.
+     */
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return HTTP status of the response, or 0 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return delay requested by the server via the Retry-After header in milliseconds, or null
+     */
+    public Long getRetryAfterMillis() {
+        return RetryPolicy.parseRetryAfter(retryAfter);
+    }
+
+    /**
+     * @return size of the response body by the Content-Length header, or -1 if not known
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    private void record(Response response) {
+        statusCode = response.getStatusCode();
+        retryAfter = response.getHeader("Retry-After");
+        contentLength = parseContentLength(response.getHeader("Content-Length"));
+    }
+
+    static long parseContentLength(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decorates given HTTP client, so that responses are recorded into the capture bound to the thread which created
+     * the request.
+     */
+    public static DisposableHttpClient decorate(DisposableHttpClient httpClient) {
+        return (DisposableHttpClient) Proxy.newProxyInstance(ResponseCapture.class.getClassLoader(),
+                new Class<?>[] {DisposableHttpClient.class}, (proxy, method, args) -> {
+                    Object result = invoke(httpClient, method, args);
+                    ResponseCapture capture = CURRENT.get();
+                    if (capture != null && result instanceof Request.Builder builder) {
+                        return decorate(builder, capture);
+                    }
+                    return result;
+                });
+    }
+
+    private static Request.Builder decorate(Request.Builder builder, ResponseCapture capture) {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result = ResponseCapture.invoke(builder, method, args);
+                if (result == builder) {
+                    // Fluent setter, keep returning the decorated builder.
+                    return proxy;
+                }
+                if (result instanceof ResponsePromise promise) {
+                    return ResponsePromises.toResponsePromise(promise.map(response -> {
+                        capture.record(response);
+                        return response;
+                    }));
+                }
+                return result;
+            }
+        };
+        return (Request.Builder) Proxy.newProxyInstance(ResponseCapture.class.getClassLoader(),
+                new Class<?>[] {Request.Builder.class}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides which failed Jira requests should be retried and how long to wait before the next attempt.
+ * <p>
+ * Retried are HTTP 401 (Jira occasionally rejects valid tokens under load), 429, 5xx responses and requests that
+ * failed on I/O errors or timeouts. The delay grows exponentially with jitter, unless the server tells us how long to
+ * wait via the Retry-After header.
+ */
+public class RetryPolicy {
+
+    private static final long NO_DEADLINE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+
+    /**
+     * @param maxAttempts maximum number of attempts, including the first one
+     * @param initialBackoffMillis delay before the first retry
+     * @param maxBackoffMillis upper bound of the delay between attempts
+     * @param deadlineMillis total time budget of a single call, including all retries; zero or negative value means
+     *                       no deadline
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, long deadlineMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.deadlineMillis = deadlineMillis > 0 ? deadlineMillis : NO_DEADLINE_MILLIS;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getDeadlineNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+    }
+
+    public boolean isRetryable(Throwable e) {
+        if (e instanceof RestClientException restClientException) {
+            int statusCode = restClientException.getStatusCode().or(0);
+            if (statusCode > 0) {
+                return statusCode == 401 || statusCode == 429 || statusCode >= 500;
+            }
+        }
+        // No response status means the request didn't make it to the server or the response didn't make it back.
+        return hasCause(e, IOException.class) || hasCause(e, TimeoutException.class);
+    }
+
+    /**
+     * @param attempt number of the attempt that failed, starting at 1
+     * @param retryAfterMillis delay requested by the server, or null
+     * @return delay before the next attempt in milliseconds
+     */
+    public long backoffMillis(int attempt, Long retryAfterMillis) {
+        if (retryAfterMillis != null && retryAfterMillis >= 0) {
+            return retryAfterMillis;
+        }
+        long exponential = initialBackoffMillis << Math.min(attempt - 1, 30);
+        if (exponential <= 0 || exponential > maxBackoffMillis) {
+            exponential = maxBackoffMillis;
+        }
+        // "Equal jitter" - at least half of the computed delay, so that the backoff still grows with each attempt.
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(exponential - half + 1);
+    }
+
+    /**
+     * Parses the value of a Retry-After header, which is either a number of seconds or an HTTP date.
+     *
+     * @return delay in milliseconds, or null if the value can't be parsed
+     */
+    public static Long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
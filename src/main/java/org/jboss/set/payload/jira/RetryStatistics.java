@@ -0,0 +1,62 @@
+package org.jboss.set.payload.jira;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how much retrying the Jira client had to do.
+ */
+public class RetryStatistics {
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong backoffNanos = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong circuitOpenings = new AtomicLong();
+
+    void recordRetry(long backoffMillis) {
+        retries.incrementAndGet();
+        backoffNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+    }
+
+    void recordExhausted() {
+        exhausted.incrementAndGet();
+    }
+
+    void recordCircuitOpening() {
+        circuitOpenings.incrementAndGet();
+    }
+
+    /**
+     * @return number of retried requests
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return total time spent waiting between attempts
+     */
+    public long getBackoffMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(backoffNanos.get());
+    }
+
+    /**
+     * @return number of calls that failed after all attempts or the deadline were used up
+     */
+    public long getExhausted() {
+        return exhausted.get();
+    }
+
+    /**
+     * @return number of times the circuit breaker throttled the rate limiter
+     */
+    public long getCircuitOpenings() {
+        return circuitOpenings.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("retries: %d, backoff: %d ms, failed calls: %d, circuit breaker openings: %d",
+                getRetries(), getBackoffMillis(), getExhausted(), getCircuitOpenings());
+    }
+}
@@ -0,0 +1,94 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+
+/**
+ * Pages through the results of a JQL search. While the caller processes a page, the next one is already being
+ * retrieved by an asynchronous search, without occupying any thread.
+ */
+public class SearchPager implements Iterator<List<Issue>>, Closeable {
+
+    /**
+     * Searches for the page starting at given index.
+     */
+    private final IntFunction<CompletableFuture<SearchResult>> search;
+    private final int pageSize;
+
+    private CompletableFuture<SearchResult> nextPage;
+    private int startAt = 0;
+    private int total = -1;
+
+    /**
+     * @param issueClient Jira client
+     * @param jql JQL query
+     * @param pageSize maximum number of issues retrieved by a single request
+     * @param fields issue fields to retrieve, empty set retrieves only the required fields
+     */
+    public SearchPager(FaultTolerantIssueClient issueClient, String jql, int pageSize, Set<String> fields) {
+        this(from -> issueClient.searchJqlAsync(jql, pageSize, from, fields), pageSize);
+    }
+
+    SearchPager(IntFunction<CompletableFuture<SearchResult>> search, int pageSize) {
+        this.search = search;
+        this.pageSize = pageSize;
+        this.nextPage = search.apply(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextPage != null;
+    }
+
+    @Override
+    public List<Issue> next() {
+        if (nextPage == null) {
+            throw new NoSuchElementException();
+        }
+        SearchResult searchResult = await(nextPage);
+        total = searchResult.getTotal();
+        List<Issue> issues = new ArrayList<>(pageSize);
+        searchResult.getIssues().forEach(issues::add);
+
+        // Jira may return fewer issues than requested, e.g. when it caps maxResults, so the next page starts right
+        // after the issues actually returned. An empty page ends the search even if the total promises more.
+        startAt += issues.size();
+        nextPage = !issues.isEmpty() && startAt < total ? search.apply(startAt) : null;
+        return issues;
+    }
+
+    /**
+     * @return total number of issues matching the query, or -1 if the first page hasn't been retrieved yet
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(false);
+        }
+    }
+
+    private static SearchResult await(CompletableFuture<SearchResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
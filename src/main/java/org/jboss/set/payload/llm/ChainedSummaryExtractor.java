@@ -0,0 +1,120 @@
+package org.jboss.set.payload.llm;
+
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tries the extractors in order until one of them returns a valid component upgrade. Cheap extractors should go
+ * first, so that the expensive ones (the LLM) are only used for summaries the cheap ones can't parse.
+ * <p>
+ * Counts how many summaries were extracted by each extractor and how many couldn't be extracted at all. Extractions
+ * cancelled by an interrupt, e.g. of a speculative resolution that is no longer needed, count as neither.
+ */
+public class ChainedSummaryExtractor implements SummaryExtractor {
+
+    private static final Logger logger = Logger.getLogger(ChainedSummaryExtractor.class);
+
+    private final List<SummaryExtractor> extractors;
+    private final List<AtomicLong> hits = new ArrayList<>();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ChainedSummaryExtractor(List<SummaryExtractor> extractors) {
+        this.extractors = List.copyOf(extractors);
+        this.extractors.forEach(e -> hits.add(new AtomicLong()));
+    }
+
+    @Override
+    public ComponentUpgrade extractInfo(String summary) {
+        for (int i = 0; i < extractors.size(); i++) {
+            SummaryExtractor extractor = extractors.get(i);
+            ComponentUpgrade componentUpgrade = extractor.extractInfo(summary);
+            if (isValid(componentUpgrade)) {
+                hits.get(i).incrementAndGet();
+                logger.debugf("Summary \"%s\" parsed by %s extractor", summary, extractor.getName());
+                return componentUpgrade;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Passes the summaries to the first extractor that extracts in the background, leaving out the summaries that
+     * can be parsed by the cheap extractors before it. Doesn't call any extractor when none extracts in the
+     * background, so that prefetching never blocks on an expensive extractor.
+     */
+    @Override
+    public boolean prefetch(Collection<String> summaries) {
+        if (!extractsInBackground()) {
+            return false;
+        }
+        List<String> remaining = new ArrayList<>(summaries);
+        for (SummaryExtractor extractor : extractors) {
+            if (remaining.isEmpty()) {
+                return false;
+            }
+            if (extractor.extractsInBackground()) {
+                return extractor.prefetch(remaining);
+            }
+            if (extractor.isCheap()) {
+                remaining.removeIf(summary -> isValid(extractor.extractInfo(summary)));
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean extractsInBackground() {
+        return extractors.stream().anyMatch(SummaryExtractor::extractsInBackground);
+    }
+
+    @Override
+    public boolean isCheap() {
+        return extractors.stream().allMatch(SummaryExtractor::isCheap);
+    }
+
+    @Override
+    public String getName() {
+        return "chain";
+    }
+
+    /**
+     * @return number of summaries extracted by the extractor at given position in the chain
+     */
+    public long getHits(int index) {
+        return hits.get(index).get();
+    }
+
+    /**
+     * @return number of summaries none of the extractors could parse
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < extractors.size(); i++) {
+            sb.append(extractors.get(i).getName()).append(" hits: ").append(hits.get(i).get()).append(", ");
+        }
+        return sb.append("misses: ").append(misses.get()).toString();
+    }
+
+    private static boolean isValid(ComponentUpgrade componentUpgrade) {
+        return componentUpgrade != null && componentUpgrade.isValid();
+    }
+
+    @Override
+    public void close() throws IOException {
+        logger.infof("Summary extraction: %s", this);
+        for (SummaryExtractor extractor : extractors) {
+            extractor.close();
+        }
+    }
+}
@@ -10,4 +10,11 @@ interface ComponentUpgradeService {
     @UserMessage("Given following summary of a component upgrade ticket, what component is being upgraded and to what version? " +
             "Summary: {{it}}")
     String extractComponentUpgrade(String summary);
+
+    @SystemMessage("You must answer strictly with a JSON array containing one object for each of the numbered summaries, "
+            + "in the same order, in the following format: [{\"index\": number, \"component\": string, \"targetVersion\": string}]"
+            + "If a summary doesn't look like a summary of a component upgrade ticket, return 'null' values for it.")
+    @UserMessage("Given following numbered summaries of component upgrade tickets, what component is being upgraded "
+            + "and to what version in each of them? Summaries:\n{{it}}")
+    String extractComponentUpgrades(String numberedSummaries);
 }
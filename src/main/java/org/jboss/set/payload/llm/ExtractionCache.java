@@ -0,0 +1,177 @@
+package org.jboss.set.payload.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of component upgrades extracted from issue summaries by the LLM.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the normalized summary and a fingerprint of everything that affects the LLM
+ * answer - the prompts of {@link ComponentUpgradeService} and the model identity. If a file is given, the entries are
+ * stored in it as gzipped JSON. When the fingerprint of the stored entries doesn't match the current one, e.g.
+ * because a prompt has been changed, the stored entries are discarded.
+ */
+class ExtractionCache {
+
+    private static final Logger logger = Logger.getLogger(ExtractionCache.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ComponentUpgrade> entries = new ConcurrentHashMap<>();
+    private final Path file;
+    private final String fingerprint;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param file file to store the entries in, or null for in-memory only cache
+     * @param fingerprint identity of the prompts and model producing the cached answers
+     */
+    ExtractionCache(Path file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        if (file != null && Files.exists(file)) {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                logger.warnf(e, "Can't read the LLM cache file %s, starting with an empty cache.", file);
+            }
+        }
+    }
+
+    /**
+     * @return cached component upgrade extracted from given summary, or null
+     */
+    ComponentUpgrade get(String summary) {
+        ComponentUpgrade upgrade = entries.get(key(summary));
+        (upgrade != null ? hits : misses).incrementAndGet();
+        return upgrade;
+    }
+
+    /**
+     * Checks presence of given summary without counting it as a hit or miss.
+     */
+    boolean contains(String summary) {
+        return entries.containsKey(key(summary));
+    }
+
+    void put(String summary, ComponentUpgrade upgrade) {
+        entries.put(key(summary), upgrade);
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("fingerprint", fingerprint);
+        ObjectNode entriesNode = json.putObject("entries");
+        entries.forEach((key, upgrade) -> entriesNode.putObject(key)
+                .put("component", upgrade.component())
+                .put("targetVersion", upgrade.targetVersion()));
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+            objectMapper.writeValue(out, json);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.infof("Stored %d entries into the LLM cache, %d hits and %d misses during this run.",
+                entries.size(), hits.get(), misses.get());
+    }
+
+    private void load() throws IOException {
+        JsonNode json;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            json = objectMapper.readTree(in);
+        }
+        if (!fingerprint.equals(json.path("fingerprint").asText())) {
+            logger.infof("LLM prompts or model have changed, discarding the LLM cache.");
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = json.path("entries").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode value = entry.getValue();
+            entries.put(entry.getKey(), new ComponentUpgrade(
+                    value.path("component").asText(null), value.path("targetVersion").asText(null)));
+        }
+        logger.infof("Loaded %d entries from the LLM cache.", entries.size());
+    }
+
+    private String key(String summary) {
+        return sha256(fingerprint + '\n' + normalize(summary));
+    }
+
+    /**
+     * Normalizes whitespace, which doesn't affect the LLM answer. Case is kept, as it is significant in versions.
+     */
+    static String normalize(String summary) {
+        return summary == null ? "" : summary.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Computes fingerprint of the {@link ComponentUpgradeService} prompts together with given model identity.
+     */
+    static String fingerprint(String... modelIdentity) {
+        StringBuilder sb = new StringBuilder();
+        Method[] methods = ComponentUpgradeService.class.getDeclaredMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::toGenericString));
+        for (Method method : methods) {
+            sb.append(method.toGenericString()).append('\n');
+            SystemMessage systemMessage = method.getAnnotation(SystemMessage.class);
+            if (systemMessage != null) {
+                sb.append(String.join("\n", systemMessage.value())).append('\n');
+            }
+            UserMessage userMessage = method.getAnnotation(UserMessage.class);
+            if (userMessage != null) {
+                sb.append(String.join("\n", userMessage.value())).append('\n');
+            }
+        }
+        for (String part : modelIdentity) {
+            sb.append(part).append('\n');
+        }
+        return sha256(sb.toString());
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
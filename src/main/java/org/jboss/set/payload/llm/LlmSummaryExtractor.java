@@ -1,6 +1,7 @@
 package org.jboss.set.payload.llm;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import dev.langchain4j.model.openai.OpenAiChatModel;
 import dev.langchain4j.service.AiServices;
@@ -8,24 +9,58 @@ import org.eclipse.microprofile.config.Config;
 import org.jboss.logging.Logger;
 import org.jboss.set.payload.ConfigKeys;
 import org.jboss.set.payload.Main;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.Metrics;
+import org.jboss.set.payload.metrics.RemoteCallEvent;
+import org.jboss.set.payload.metrics.SummaryExtractionEvent;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
-public class LlmSummaryExtractor {
+public class LlmSummaryExtractor implements SummaryExtractor {
 
     private static final Logger logger = Logger.getLogger(LlmSummaryExtractor.class);
 
+    private static final String CACHE_FILE = "llm-extractions.json.gz";
+
     private final OpenAiChatModel model;
     private final ComponentUpgradeService service;
+    private final ExtractionCache cache;
+    private final int batchSize;
+    private final ExecutorService batchExecutor;
+    /**
+     * Summaries being extracted by background batches.
+     */
+    private final Map<String, CompletableFuture<ComponentUpgrade>> inFlight = new ConcurrentHashMap<>();
 
     public LlmSummaryExtractor(Config config) {
         String llmBaseUrl = config.getValue(ConfigKeys.LLM_BASE_URL, String.class);
         Integer llmTimeout = config.getOptionalValue(ConfigKeys.LLM_TIMEOUT, Integer.class).orElse(60);
+        Optional<String> modelName = config.getOptionalValue(ConfigKeys.LLM_MODEL_NAME, String.class);
 
         model = OpenAiChatModel.builder()
                 .baseUrl(llmBaseUrl)
+                .modelName(modelName.orElse(null))
                 .timeout(Duration.of(llmTimeout, ChronoUnit.SECONDS))
                 .logRequests(true)
                 .logResponses(true)
@@ -35,13 +70,200 @@ public class LlmSummaryExtractor {
                 .temperature(0d)
                 .build();
         service = AiServices.create(ComponentUpgradeService.class, model);
+
+        // Answers only depend on the prompts and the model, so they can be reused until one of those changes.
+        Path cacheFile = config.getOptionalValue(ConfigKeys.CACHE_DIR, Path.class)
+                .map(dir -> dir.resolve(CACHE_FILE))
+                .orElse(null);
+        cache = new ExtractionCache(cacheFile, ExtractionCache.fingerprint(llmBaseUrl, modelName.orElse("")));
+
+        batchSize = config.getOptionalValue(ConfigKeys.LLM_BATCH_SIZE, Integer.class).orElse(1);
+        int maxConcurrentBatches = Math.max(1,
+                config.getOptionalValue(ConfigKeys.LLM_MAX_CONCURRENT_BATCHES, Integer.class).orElse(2));
+        AtomicInteger threadCounter = new AtomicInteger();
+        batchExecutor = Executors.newFixedThreadPool(maxConcurrentBatches, runnable -> {
+            Thread thread = new Thread(runnable, "llm-batch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
+    @Override
     public ComponentUpgrade extractInfo(String summary) {
+        if (!FlightRecording.isEnabled()) {
+            return extract(summary, null);
+        }
+        SummaryExtractionEvent event = new SummaryExtractionEvent(summary);
+        try {
+            ComponentUpgrade componentUpgrade = extract(summary, event);
+            if (componentUpgrade != null) {
+                event.component = componentUpgrade.component();
+                event.targetVersion = componentUpgrade.targetVersion();
+            }
+            return componentUpgrade;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * @param event event to record the source of the answer into, or null
+     */
+    private ComponentUpgrade extract(String summary, SummaryExtractionEvent event) {
+        ComponentUpgrade cached = cache.get(summary);
+        if (cached != null) {
+            setSource(event, SummaryExtractionEvent.SOURCE_CACHE);
+            return cached;
+        }
+        CompletableFuture<ComponentUpgrade> pending = inFlight.get(summary);
+        if (pending != null) {
+            setSource(event, SummaryExtractionEvent.SOURCE_BATCH);
+            // Interruptible, so that a cancelled resolution doesn't keep waiting for the batch. Not having waited for the
+            // answer doesn't mean the summary couldn't be parsed, so no null is returned then.
+            try {
+                return pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                CancellationException cancellation = new CancellationException(
+                        "Interrupted while waiting for summary extraction");
+                cancellation.initCause(e);
+                throw cancellation;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        setSource(event, SummaryExtractionEvent.SOURCE_QUERY);
+        return query(summary);
+    }
+
+    private static void setSource(SummaryExtractionEvent event, String source) {
+        if (event != null) {
+            event.source = source;
+        }
+    }
+
+    /**
+     * Extracts component upgrades from several summaries, packing up to {@code llm.batch_size} summaries into
+     * a single LLM request.
+     *
+     * @return extracted component upgrades in the order of given summaries, null for summaries that couldn't be parsed
+     */
+    public List<ComponentUpgrade> extractInfo(List<String> summaries) {
+        prefetch(summaries);
+        List<ComponentUpgrade> result = new ArrayList<>(summaries.size());
+        for (String summary : summaries) {
+            result.add(extractInfo(summary));
+        }
+        return result;
+    }
+
+    /**
+     * Starts extracting given summaries in batches in the background. Does nothing when batching is disabled, i.e.
+     * when {@code llm.batch_size} is 1.
+     */
+    @Override
+    public boolean prefetch(Collection<String> summaries) {
+        if (batchSize <= 1) {
+            return false;
+        }
+        Map<String, CompletableFuture<ComponentUpgrade>> futures = new LinkedHashMap<>();
+        for (String summary : new LinkedHashSet<>(summaries)) {
+            if (summary == null || cache.contains(summary)) {
+                continue;
+            }
+            CompletableFuture<ComponentUpgrade> future = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(summary, future) == null) {
+                futures.put(summary, future);
+            }
+        }
+
+        List<String> toExtract = new ArrayList<>(futures.keySet());
+        for (int i = 0; i < toExtract.size(); i += batchSize) {
+            List<String> batch = List.copyOf(toExtract.subList(i, Math.min(i + batchSize, toExtract.size())));
+            batchExecutor.execute(() -> extractBatch(batch, futures));
+        }
+        return true;
+    }
+
+    /**
+     * Extracts a batch of summaries by a single request. Summaries with missing or invalid answers are queried
+     * again one by one.
+     */
+    private void extractBatch(List<String> batch, Map<String, CompletableFuture<ComponentUpgrade>> futures) {
+        List<ComponentUpgrade> answers = queryBatch(batch);
+        int requeried = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            String summary = batch.get(i);
+            ComponentUpgrade answer = answers.get(i);
+            try {
+                if (answer != null && answer.isValid()) {
+                    cache.put(summary, answer);
+                } else {
+                    requeried++;
+                    answer = query(summary);
+                }
+                futures.get(summary).complete(answer);
+            } catch (RuntimeException e) {
+                futures.get(summary).completeExceptionally(e);
+            } finally {
+                inFlight.remove(summary);
+            }
+        }
+        logger.debugf("Extracted batch of %d summaries, %d had to be queried again.", batch.size(), requeried);
+    }
+
+    /**
+     * @return answers in the order of given summaries, null for summaries the answer doesn't contain or couldn't be
+     * parsed
+     */
+    private List<ComponentUpgrade> queryBatch(List<String> batch) {
+        ComponentUpgrade[] answers = new ComponentUpgrade[batch.size()];
+        StringBuilder numberedSummaries = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            numberedSummaries.append(i + 1).append(". ").append(ExtractionCache.normalize(batch.get(i))).append('\n');
+        }
+
+        String responseContent = null;
+        try {
+            responseContent = timedCall(() -> service.extractComponentUpgrades(numberedSummaries.toString()));
+            // Models tend to wrap the answer in a markdown code block.
+            int start = responseContent.indexOf('[');
+            int end = responseContent.lastIndexOf(']');
+            if (start < 0 || end < start) {
+                logger.errorf("LLM response for a batch of %d summaries doesn't contain an array: %s",
+                        batch.size(), responseContent);
+                return Arrays.asList(answers);
+            }
+            JsonNode array = YAMLMapper.builder().build().readTree(responseContent.substring(start, end + 1));
+            for (int i = 0; i < array.size(); i++) {
+                JsonNode entry = array.get(i);
+                int index = entry.path("index").asInt(i + 1) - 1;
+                if (index >= 0 && index < answers.length && answers[index] == null) {
+                    answers[index] = new ComponentUpgrade(
+                            entry.path("component").asText(null), entry.path("targetVersion").asText(null));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            logger.errorf(e, "Can't parse LLM response for a batch of %d summaries: %s", batch.size(), responseContent);
+        } catch (RuntimeException e) {
+            logger.errorf(e, "LLM request for a batch of %d summaries failed.", batch.size());
+        }
+        return Arrays.asList(answers);
+    }
+
+    /**
+     * Extracts single summary by a dedicated request.
+     */
+    private ComponentUpgrade query(String summary) {
         String responseContent = null;
         try {
-            responseContent = service.extractComponentUpgrade(summary);
-            return YAMLMapper.builder().build().readValue(responseContent, ComponentUpgrade.class);
+            responseContent = timedCall(() -> service.extractComponentUpgrade(summary));
+            ComponentUpgrade componentUpgrade = YAMLMapper.builder().build().readValue(responseContent, ComponentUpgrade.class);
+            cache.put(summary, componentUpgrade);
+            return componentUpgrade;
         } /*catch (RuntimeException e) {
             logger.errorf(e, "Can't parse issue summary \"%s\"", summary);
             return null;
@@ -50,4 +272,43 @@ public class LlmSummaryExtractor {
             return null;
         }
     }
+
+    private static String timedCall(Supplier<String> call) {
+        long start = System.nanoTime();
+        RemoteCallEvent event = FlightRecording.isEnabled() ? new RemoteCallEvent(Metrics.LLM_CALL, null) : null;
+        Throwable failure = null;
+        String response = null;
+        try {
+            response = call.get();
+            return response;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            Metrics.timer(Metrics.LLM_CALL).record(System.nanoTime() - start, failure == null);
+            if (event != null) {
+                event.attempt = 1;
+                if (response != null) {
+                    event.bytes = response.getBytes(StandardCharsets.UTF_8).length;
+                }
+                event.complete(failure);
+            }
+        }
+    }
+
+    @Override
+    public boolean extractsInBackground() {
+        return batchSize > 1;
+    }
+
+    @Override
+    public String getName() {
+        return "llm";
+    }
+
+    @Override
+    public void close() throws IOException {
+        batchExecutor.shutdownNow();
+        cache.save();
+    }
 }
@@ -0,0 +1,43 @@
+package org.jboss.set.payload.llm;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses summaries following the usual Component Upgrade templates, e.g. "Upgrade X to 1.2.3.Final",
+ * "[8.1.0.GA] Upgrade X to 1.2.3.Final" or "(8.1.z) Upgrade X from 1.2.2.Final to 1.2.3.Final".
+ * <p>
+ * Summaries that don't follow the templates are left to the next extractor in the chain.
+ */
+public class PatternSummaryExtractor implements SummaryExtractor {
+
+    private static final Pattern SUMMARY_PATTERN = Pattern.compile(
+            "^\\s*(?:[\\[(][^\\])]*[\\])]\\s*)*" // Any number of "[8.1.0.GA]" or "(8.1.z)" prefixes
+                    + "(?:Component\\s+)?Upgrade\\s+"
+                    + "(?<component>.+?)(?:\\s+version)?"
+                    + "(?:\\s+from\\s+v?\\d\\S*)?"
+                    + "\\s+to\\s+(?:version\\s+)?v?(?<version>\\d[\\w.+-]*?)\\.?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    @Override
+    public ComponentUpgrade extractInfo(String summary) {
+        if (summary == null) {
+            return null;
+        }
+        Matcher matcher = SUMMARY_PATTERN.matcher(summary);
+        if (matcher.matches()) {
+            return new ComponentUpgrade(matcher.group("component").trim(), matcher.group("version"));
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isCheap() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "pattern";
+    }
+}
@@ -0,0 +1,52 @@
+package org.jboss.set.payload.llm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Extracts the upgraded component and its target version from a Component Upgrade issue summary.
+ */
+public interface SummaryExtractor extends Closeable {
+
+    /**
+     * @param summary issue summary
+     * @return extracted component upgrade, or null if the summary couldn't be parsed
+     * @throws java.util.concurrent.CancellationException if interrupted before the summary could be extracted
+     */
+    ComponentUpgrade extractInfo(String summary);
+
+    /**
+     * Starts extracting given summaries in the background, so that the following {@link #extractInfo(String)} calls
+     * don't have to wait. Extractors that are cheap enough to be called synchronously don't implement this.
+     *
+     * @return true if the extraction has been started, false if this extractor doesn't extract in the background
+     */
+    default boolean prefetch(Collection<String> summaries) {
+        return false;
+    }
+
+    /**
+     * @return true if {@link #prefetch(Collection)} extracts in the background, i.e. if it would return true
+     */
+    default boolean extractsInBackground() {
+        return false;
+    }
+
+    /**
+     * @return true if {@link #extractInfo(String)} is cheap enough to be called while prefetching, e.g. because it
+     * doesn't contact any remote service
+     */
+    default boolean isCheap() {
+        return false;
+    }
+
+    /**
+     * @return short name used in logs and statistics
+     */
+    String getName();
+
+    @Override
+    default void close() throws IOException {
+    }
+}
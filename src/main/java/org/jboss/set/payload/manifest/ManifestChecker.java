@@ -1,16 +1,19 @@
 package org.jboss.set.payload.manifest;
 
 import org.jboss.logging.Logger;
-import org.wildfly.channel.ChannelManifest;
-import org.wildfly.channel.ChannelManifestMapper;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.ManifestCheckEvent;
 import org.wildfly.channel.version.VersionMatcher;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ManifestChecker {
 
@@ -20,82 +23,148 @@ public class ManifestChecker {
     private static final Logger logger = Logger.getLogger(ManifestChecker.class);
     static final Comparator<String> VERSION_COMPARATOR = VersionMatcher.COMPARATOR;
 
-    private final Map<String, String> manifestStreams;
+    private final StreamIndex manifestStreams;
+    private final List<String> manifestNames;
 
     /**
      * @param manifestPath path to manifest file
      */
     public ManifestChecker(Path manifestPath) {
-        try {
-            this.manifestStreams = loadManifestStreams(manifestPath);
-        } catch (IOException e) {
-            throw new RuntimeException("Can't load the manifest file", e);
+        this(List.of(manifestPath));
+    }
+
+    /**
+     * @param manifestPaths paths to manifest files, component upgrades are checked against all of them at once
+     */
+    public ManifestChecker(List<Path> manifestPaths) {
+        List<Map<String, String>> manifests = new ArrayList<>(manifestPaths.size());
+        for (Path manifestPath : manifestPaths) {
+            try {
+                manifests.add(loadManifestStreams(manifestPath));
+            } catch (IOException e) {
+                throw new RuntimeException("Can't load the manifest file " + manifestPath, e);
+            }
         }
+        this.manifestStreams = new StreamIndex(manifests);
+        this.manifestNames = manifestPaths.stream().map(p -> p.getFileName().toString()).toList();
+    }
+
+    public int getManifestCount() {
+        return manifestNames.size();
     }
 
     /**
-     * Checks if given component upgrade is covered by the manifest.
+     * Checks if given component upgrade is covered by the (first) manifest.
      *
      * @param componentQuery component query to resolve
      * @return true of all upgrade artifacts are covered by the manifest (version in manifest is equal or higher)
      */
     public Boolean test(ComponentQuery componentQuery) {
-        boolean presentInManifest = false; // At least one build artifact has to be present in the manifest.
+        return testAll(componentQuery)[0];
+    }
+
+    /**
+     * Checks if given component upgrade is covered by each of the manifests, in a single pass over the upgrade
+     * artifacts.
+     *
+     * @param componentQuery component query to resolve
+     * @return for each manifest, true if all upgrade artifacts are covered by the manifest (version in manifest is
+     * equal or higher), false if they aren't, null if none of the artifacts is present in the manifest
+     */
+    public Boolean[] testAll(ComponentQuery componentQuery) {
+        if (!FlightRecording.isEnabled()) {
+            return check(componentQuery);
+        }
+        ManifestCheckEvent event = new ManifestCheckEvent(componentQuery.issueKey(),
+                componentQuery.upgradedArtifacts().size());
+        Boolean[] results = check(componentQuery);
+        event.results = Arrays.toString(results);
+        event.commit();
+        return results;
+    }
+
+    private Boolean[] check(ComponentQuery componentQuery) {
+        int manifestCount = manifestStreams.columns();
+        boolean[] presentInManifest = new boolean[manifestCount]; // At least one build artifact has to be present.
+        boolean[] notSatisfied = new boolean[manifestCount];
+        int undecided = manifestCount;
         for (Map.Entry<String, String> entry : componentQuery.upgradedArtifacts.entrySet()) {
             String ga = entry.getKey();
+            int slot = manifestStreams.find(ga);
+            if (slot < 0) {
+                continue;
+            }
             String upgradedVersion = entry.getValue();
-            if (manifestStreams.containsKey(ga)) {
-                presentInManifest = true;
-                String versionInManifest = manifestStreams.get(ga);
+            String normalizedUpgradedVersion = StreamIndex.normalize(upgradedVersion);
+            for (int m = 0; m < manifestCount; m++) {
+                String versionInManifest = manifestStreams.normalizedVersion(m, slot);
+                if (notSatisfied[m] || versionInManifest == null) {
+                    continue;
+                }
+                presentInManifest[m] = true;
 
                 // Here were compare version introduced by the component upgrade against the version present in the
                 // manifest. If the version from the manifest is lower, the component upgrade is not covered by this
-                // manifest.
-                if (compareVersions(upgradedVersion, versionInManifest) > 0) {
-                    logger.infof("%s: Build artifact %s:%s is not satisfied by manifest stream %s:%s",
-                            componentQuery.issueKey, ga, upgradedVersion, ga, versionInManifest);
-                    return false;
-                } else {
-                    logger.debugf("%s: Build artifact %s:%s is satisfied by manifest stream %s:%s",
-                            componentQuery.issueKey, ga, upgradedVersion, ga, versionInManifest);
+                // manifest. Manifest versions have been normalized when the manifest was loaded.
+                if (VERSION_COMPARATOR.compare(normalizedUpgradedVersion, versionInManifest) > 0) {
+                    logger.infof("%s: Build artifact %s:%s is not satisfied by manifest stream %s:%s%s",
+                            componentQuery.issueKey, ga, upgradedVersion, ga, manifestStreams.version(m, slot),
+                            manifestSuffix(m));
+                    notSatisfied[m] = true;
+                    undecided--;
+                } else if (logger.isDebugEnabled()) {
+                    logger.debugf("%s: Build artifact %s:%s is satisfied by manifest stream %s:%s%s",
+                            componentQuery.issueKey, ga, upgradedVersion, ga, manifestStreams.version(m, slot),
+                            manifestSuffix(m));
                 }
             }
+            if (undecided == 0) {
+                break;
+            }
         }
 
-        if (presentInManifest) { // At least one artifact was present in manifest.
-            return true;
+        Boolean[] results = new Boolean[manifestCount];
+        for (int m = 0; m < manifestCount; m++) {
+            if (notSatisfied[m]) {
+                results[m] = false;
+            } else if (presentInManifest[m]) { // At least one artifact was present in manifest.
+                results[m] = true;
+            } else {
+                logger.infof("%s: No artifacts from this component upgrade are present in the manifest%s.",
+                        componentQuery.issueKey, manifestSuffix(m));
+                results[m] = null; // Represents Unknown
+            }
         }
-
-        logger.infof("%s: No artifacts from this component upgrade are present in the manifest.",
-                componentQuery.issueKey);
-        return null; // Represents Unknown
+        return results;
     }
 
+    private String manifestSuffix(int m) {
+        return manifestNames.size() > 1 ? " (" + manifestNames.get(m) + ")" : "";
+    }
 
     /**
-     * Compares two maven version strings.
-     *
-     * @return negative number, zero, or positive number if the first version is lower, equal or higher than the second version respectively.
+     * @return GAs of the streams that were added, removed or changed version between the two manifests
      */
-    private static int compareVersions(String first, String second) {
-        return VERSION_COMPARATOR.compare(first.trim(), second.trim());
+    public static Set<String> changedStreams(Path previousManifestPath, Path currentManifestPath) throws IOException {
+        Map<String, String> previous = loadManifestStreams(previousManifestPath);
+        Map<String, String> current = loadManifestStreams(currentManifestPath);
+        Set<String> changed = new HashSet<>();
+        current.forEach((ga, version) -> {
+            if (!version.equals(previous.get(ga))) {
+                changed.add(ga);
+            }
+        });
+        previous.keySet().stream()
+                .filter(ga -> !current.containsKey(ga))
+                .forEach(changed::add);
+        return changed;
     }
 
     /**
      * Loads manifest streams into a map.
      */
-    private static Map<String, String> loadManifestStreams(Path manifestPath) throws IOException {
-        Map<String, String> manifestStreams = new HashMap<>();
-        ChannelManifest manifest = ChannelManifestMapper.fromString(Files.readString(manifestPath));
-        manifest.getStreams().forEach(s -> {
-            if (s.getVersion() != null) {
-                manifestStreams.put(s.getGroupId() + ":" + s.getArtifactId(), s.getVersion());
-            } else {
-                logger.warnf("Manifest stream %s:%s doesn't have a fixed version, can't be used for comparison.",
-                        s.getGroupId(), s.getArtifactId());
-            }
-        });
-        return manifestStreams;
+    static Map<String, String> loadManifestStreams(Path manifestPath) throws IOException {
+        return ManifestStreamsLoader.load(manifestPath);
     }
 
 }
@@ -0,0 +1,153 @@
+package org.jboss.set.payload.manifest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.jboss.logging.Logger;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads GA -> version map of manifest streams by a streaming YAML parser, without building the whole
+ * {@link org.wildfly.channel.ChannelManifest} object graph. Only the "streams" list is read, everything else in the
+ * manifest is skipped.
+ * <p>
+ * Large files are memory-mapped rather than read through a buffered stream, so their content doesn't have to be
+ * copied to the heap.
+ */
+final class ManifestStreamsLoader {
+
+    private static final Logger logger = Logger.getLogger(ManifestStreamsLoader.class);
+
+    /**
+     * Files of this size or larger are memory-mapped.
+     */
+    static final long MMAP_THRESHOLD = 8 * 1024 * 1024;
+
+    /**
+     * SnakeYAML refuses documents over 3M code points by default, which large manifests exceed. The parser doesn't
+     * keep the document in memory, so there is no reason for the limit here.
+     */
+    private static final YAMLFactory YAML_FACTORY = YAMLFactory.builder().loaderOptions(loaderOptions()).build();
+
+    private ManifestStreamsLoader() {
+    }
+
+    private static LoaderOptions loaderOptions() {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(Integer.MAX_VALUE);
+        return loaderOptions;
+    }
+
+    static Map<String, String> load(Path manifestPath) throws IOException {
+        long size = Files.size(manifestPath);
+        return load(manifestPath, size >= MMAP_THRESHOLD && size <= Integer.MAX_VALUE);
+    }
+
+    static Map<String, String> load(Path manifestPath, boolean memoryMapped) throws IOException {
+        if (memoryMapped) {
+            try (FileChannel channel = FileChannel.open(manifestPath, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return load(new ByteBufferInputStream(buffer));
+            }
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(manifestPath))) {
+            return load(in);
+        }
+    }
+
+    static Map<String, String> load(InputStream in) throws IOException {
+        Map<String, String> manifestStreams = new HashMap<>();
+        try (JsonParser parser = YAML_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Manifest is not a YAML mapping");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("streams".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readStream(parser, manifestStreams);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return manifestStreams;
+    }
+
+    private static void readStream(JsonParser parser, Map<String, String> manifestStreams) throws IOException {
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isScalarValue()) {
+                // Text of the scalar as written, e.g. unquoted "1.10" must not become a number.
+                switch (field) {
+                    case "groupId" -> groupId = parser.getText();
+                    case "artifactId" -> artifactId = parser.getText();
+                    case "version" -> version = parser.getText();
+                    default -> {
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (groupId == null || artifactId == null) {
+            throw new IOException("Manifest stream without groupId or artifactId at " + parser.currentLocation());
+        }
+        if (version != null) {
+            manifestStreams.put(groupId + ":" + artifactId, version);
+        } else {
+            logger.warnf("Manifest stream %s:%s doesn't have a fixed version, can't be used for comparison.",
+                    groupId, artifactId);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
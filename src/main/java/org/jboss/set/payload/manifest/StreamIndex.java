@@ -0,0 +1,118 @@
+package org.jboss.set.payload.manifest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable columnar GA -> version index of the streams of one or more manifests, with versions normalized once when
+ * the index is built.
+ * <p>
+ * GAs of all manifests share a single open-addressing table with linear probing, kept at most half full, so a lookup
+ * is a hash computation and usually a single string comparison, without any allocation. The slot found for a GA is
+ * then used to read the version of each manifest from its own column; the version is null if the manifest doesn't
+ * contain the GA.
+ */
+final class StreamIndex {
+
+    private final String[] keys;
+    private final String[][] versions;
+    private final String[][] normalizedVersions;
+    private final int mask;
+    private final int size;
+
+    StreamIndex(Map<String, String> gaToVersion) {
+        this(List.of(gaToVersion));
+    }
+
+    /**
+     * @param manifests GA -> version maps of the manifests, one column is created for each of them
+     */
+    StreamIndex(List<Map<String, String>> manifests) {
+        Set<String> gas = new HashSet<>();
+        manifests.forEach(manifest -> gas.addAll(manifest.keySet()));
+
+        int capacity = Integer.highestOneBit(Math.max(2, gas.size()) * 2 - 1) << 1;
+        keys = new String[capacity];
+        versions = new String[manifests.size()][capacity];
+        normalizedVersions = new String[manifests.size()][capacity];
+        mask = capacity - 1;
+        size = gas.size();
+        for (String ga : gas) {
+            int slot = hash(ga) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = ga;
+            for (int column = 0; column < manifests.size(); column++) {
+                String version = manifests.get(column).get(ga);
+                if (version != null) {
+                    versions[column][slot] = version;
+                    normalizedVersions[column][slot] = normalize(version);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return slot of given GA, or -1 if the GA isn't present in any of the manifests
+     */
+    int find(String ga) {
+        int slot = hash(ga) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(ga)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    boolean contains(String ga) {
+        return find(ga) >= 0;
+    }
+
+    /**
+     * @return version of the stream in given manifest, or null if the manifest doesn't contain the stream
+     */
+    String version(int column, int slot) {
+        return versions[column][slot];
+    }
+
+    /**
+     * @return version of the stream in given manifest in the form compared by
+     * {@link ManifestChecker#VERSION_COMPARATOR}, or null if the manifest doesn't contain the stream
+     */
+    String normalizedVersion(int column, int slot) {
+        return normalizedVersions[column][slot];
+    }
+
+    /**
+     * @return number of manifests
+     */
+    int columns() {
+        return versions.length;
+    }
+
+    /**
+     * @return number of distinct GAs over all manifests
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Brings version into the form compared by {@link ManifestChecker#VERSION_COMPARATOR}. The versions are kept as
+     * strings, as the comparator orders them differently from Maven, e.g. "1.0.0.Final" is higher than "1.0.0".
+     */
+    static String normalize(String version) {
+        return version.trim();
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
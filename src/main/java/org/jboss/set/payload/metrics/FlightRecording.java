@@ -0,0 +1,86 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.jboss.logging.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Switch of the custom Flight Recorder events, see {@link RemoteCallEvent}, {@link StrategyDecisionEvent},
+ * {@link ManifestCheckEvent} and {@link SummaryExtractionEvent}.
+ * <p>
+ * The events begin when created and are committed when the measured operation ends. They are only created when
+ * enabled, so they cost nothing otherwise. Once enabled, they are recorded by any
+ * running recording, e.g. one started by {@code -XX:StartFlightRecording}, or by the recording started by
+ * {@link #start(Path)}.
+ */
+public final class FlightRecording implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(FlightRecording.class);
+
+    /**
+     * JDK settings with the allocation and GC events, so that the custom events can be correlated with them.
+     */
+    private static final String SETTINGS = "profile";
+
+    private static volatile boolean enabled;
+
+    private final Recording recording;
+    private final Path file;
+
+    private FlightRecording(Recording recording, Path file) {
+        this.recording = recording;
+        this.file = file;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        FlightRecording.enabled = enabled;
+    }
+
+    /**
+     * Enables the events and starts a recording, which is written into given file on close.
+     */
+    public static FlightRecording start(Path file) throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(SETTINGS);
+        } catch (ParseException e) {
+            throw new IOException("Can't load the " + SETTINGS + " Flight Recorder settings", e);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName("manifest-payload-linker");
+        recording.enable(RemoteCallEvent.class);
+        recording.enable(StrategyDecisionEvent.class);
+        recording.enable(ManifestCheckEvent.class);
+        recording.enable(SummaryExtractionEvent.class);
+        recording.setToDisk(true);
+        setEnabled(true);
+        recording.start();
+        logger.infof("Started Flight Recorder recording, it will be written into %s.", file);
+        return new FlightRecording(recording, file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            recording.stop();
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            recording.dump(file);
+            logger.infof("Flight Recorder recording written into %s.", file);
+        } finally {
+            recording.close();
+        }
+    }
+}
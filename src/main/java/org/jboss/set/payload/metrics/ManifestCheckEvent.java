@@ -0,0 +1,36 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a component upgrade checked against the manifests.
+ */
+@Name("org.jboss.set.payload.ManifestCheck")
+@Label("Manifest Check")
+@Category({"Manifest Payload Linker", "Resolution"})
+@Description("Component upgrade checked against the manifests")
+@StackTrace(false)
+public class ManifestCheckEvent extends Event {
+
+    @Label("Issue Key")
+    public String issueKey;
+
+    @Label("Artifacts")
+    @Description("Number of the upgrade artifacts")
+    public int artifacts;
+
+    @Label("Results")
+    @Description("Result for each manifest")
+    public String results;
+
+    public ManifestCheckEvent(String issueKey, int artifacts) {
+        this.issueKey = issueKey;
+        this.artifacts = artifacts;
+        begin();
+    }
+}
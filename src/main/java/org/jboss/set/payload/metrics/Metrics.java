@@ -0,0 +1,113 @@
+package org.jboss.set.payload.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of the timers measuring the stages of a run.
+ * <p>
+ * Timers are named by the stage, prefixed by the component, e.g. "jira.get_issue", "strategy.PncResolutionStrategy"
+ * or "consumer.DetailedReportConsumer". The registry is static, so that the components don't need to pass it around;
+ * {@link #reset()} starts a new run.
+ */
+public final class Metrics {
+
+    public static final String JIRA_SEARCH = "jira.search";
+    public static final String JIRA_GET_ISSUE = "jira.get_issue";
+    public static final String JIRA_ADD_COMMENT = "jira.add_comment";
+    public static final String JIRA_UPDATE_ISSUE = "jira.update_issue";
+    public static final String JIRA_GET_TRANSITIONS = "jira.get_transitions";
+    public static final String JIRA_TRANSITION = "jira.transition";
+    public static final String JIRA_INCORPORATED_FETCH = "jira.incorporated_fetch";
+    public static final String JIRA_RATE_LIMIT_WAIT = "jira.rate_limit_wait";
+    public static final String PNC_GET_BUILT_ARTIFACTS = "pnc.get_built_artifacts";
+    public static final String LLM_CALL = "llm.call";
+    public static final String ISSUE_RESOLUTION = "issue.resolution";
+    public static final String STRATEGY_PREFIX = "strategy.";
+    public static final String CONSUMER_PREFIX = "consumer.";
+
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static volatile long startNanos = System.nanoTime();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return timer of given name, created on first use
+     */
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * @return timers used so far, ordered by name
+     */
+    public static List<Timer> timers() {
+        return List.copyOf(timers.values());
+    }
+
+    /**
+     * Discards all timers and restarts the run clock.
+     */
+    public static void reset() {
+        timers.clear();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * @return table of the timers, one per line
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        summary.append(String.format("Run took %.1f s.%n", elapsedNanos / 1_000_000_000d));
+        summary.append(String.format("%-45s %8s %7s %10s %10s %10s %12s %9s%n", "Stage", "Count", "Errors",
+                "p50 ms", "p95 ms", "max ms", "total ms", "per sec"));
+        for (Timer timer : timers()) {
+            long count = timer.getCount();
+            summary.append(String.format("%-45s %8d %7d %10.1f %10.1f %10.1f %12.1f %9.2f%n", timer.getName(),
+                    count, timer.getErrorCount(),
+                    Timer.toMillis(timer.getPercentileNanos(50)),
+                    Timer.toMillis(timer.getPercentileNanos(95)),
+                    Timer.toMillis(timer.getMaxNanos()),
+                    Timer.toMillis(timer.getTotalNanos()),
+                    elapsedNanos > 0 ? count * 1_000_000_000d / elapsedNanos : 0));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes the timers as a JSON object: run duration and a "stages" object keyed by the timer names.
+     */
+    public static void writeJson(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode json = mapper.createObjectNode();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        json.put("durationMillis", Timer.toMillis(elapsedNanos));
+        ObjectNode stages = json.putObject("stages");
+        for (Timer timer : timers()) {
+            stages.putObject(timer.getName())
+                    .put("count", timer.getCount())
+                    .put("errors", timer.getErrorCount())
+                    .put("p50Millis", Timer.toMillis(timer.getPercentileNanos(50)))
+                    .put("p95Millis", Timer.toMillis(timer.getPercentileNanos(95)))
+                    .put("p99Millis", Timer.toMillis(timer.getPercentileNanos(99)))
+                    .put("maxMillis", Timer.toMillis(timer.getMaxNanos()))
+                    .put("totalMillis", Timer.toMillis(timer.getTotalNanos()))
+                    .put("perSecond", elapsedNanos > 0 ? timer.getCount() * 1_000_000_000d / elapsedNanos : 0);
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        mapper.writeValue(file.toFile(), json);
+    }
+}
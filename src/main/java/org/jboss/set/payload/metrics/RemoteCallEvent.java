@@ -0,0 +1,61 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a single request to Jira, PNC or the LLM. Retried Jira calls emit an event per attempt.
+ */
+@Name("org.jboss.set.payload.RemoteCall")
+@Label("Remote Call")
+@Category({"Manifest Payload Linker", "Remote Calls"})
+@Description("Request to Jira, PNC or the LLM")
+@StackTrace(false)
+public class RemoteCallEvent extends Event {
+
+    @Label("Endpoint")
+    @Description("Operation, named as its timer, e.g. jira.get_issue")
+    public String endpoint;
+
+    @Label("Issue Key")
+    public String issueKey;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Status")
+    @Description("HTTP status of the response, 0 if not known")
+    public int status;
+
+    @Label("Error")
+    @Description("Exception the request failed with, null on success")
+    public String error;
+
+    @Label("Bytes")
+    @Description("Size of the response, -1 if not known")
+    @DataAmount
+    public long bytes = -1;
+
+    public RemoteCallEvent(String endpoint, String issueKey) {
+        this.endpoint = endpoint;
+        this.issueKey = issueKey;
+        begin();
+    }
+
+    /**
+     * Commits the event, if enabled by the running recordings.
+     *
+     * @param e exception the request failed with, or null
+     */
+    public void complete(Throwable e) {
+        if (e != null) {
+            error = e.getClass().getName();
+        }
+        commit();
+    }
+}
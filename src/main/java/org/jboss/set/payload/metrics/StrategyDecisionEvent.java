@@ -0,0 +1,42 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a resolution strategy run over an issue.
+ */
+@Name("org.jboss.set.payload.StrategyDecision")
+@Label("Strategy Decision")
+@Category({"Manifest Payload Linker", "Resolution"})
+@Description("Resolution strategy run over an issue")
+@StackTrace(false)
+public class StrategyDecisionEvent extends Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Issue Key")
+    public String issueKey;
+
+    @Label("Verdict")
+    @Description("Outcome for each manifest, null if the strategy failed")
+    public String verdict;
+
+    @Label("Artifacts")
+    @Description("Number of the upgrade artifacts the verdict is based on")
+    public int artifacts;
+
+    @Label("Error")
+    public String error;
+
+    public StrategyDecisionEvent(String strategy, String issueKey) {
+        this.strategy = strategy;
+        this.issueKey = issueKey;
+        begin();
+    }
+}
@@ -0,0 +1,42 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a component upgrade extracted from an issue summary by the LLM, including the time spent
+ * waiting for a batch extracting the same summary.
+ */
+@Name("org.jboss.set.payload.SummaryExtraction")
+@Label("Summary Extraction")
+@Category({"Manifest Payload Linker", "Resolution"})
+@Description("Component upgrade extracted from an issue summary")
+@StackTrace(false)
+public class SummaryExtractionEvent extends Event {
+
+    public static final String SOURCE_CACHE = "cache";
+    public static final String SOURCE_BATCH = "batch";
+    public static final String SOURCE_QUERY = "query";
+
+    @Label("Summary")
+    public String summary;
+
+    @Label("Source")
+    @Description("Where the answer came from: cache, batch or query")
+    public String source;
+
+    @Label("Component")
+    public String component;
+
+    @Label("Target Version")
+    public String targetVersion;
+
+    public SummaryExtractionEvent(String summary) {
+        this.summary = summary;
+        begin();
+    }
+}
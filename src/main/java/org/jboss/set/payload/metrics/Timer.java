@@ -0,0 +1,119 @@
+package org.jboss.set.payload.metrics;
+
+/**
+ * Durations of one kind of operation, e.g. a Jira request or a resolution strategy run.
+ * <p>
+ * Durations are counted in a log-linear histogram with 64 buckets per power of two, so percentiles are precise to
+ * about 2 % while the memory taken doesn't depend on the number of recorded operations. Count, total and maximum are
+ * exact.
+ */
+public class Timer {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final long[] histogram = new long[BUCKETS];
+    private long count;
+    private long errorCount;
+    private long totalNanos;
+    private long maxNanos;
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param nanos duration of the operation
+     * @param success false if the operation failed
+     */
+    public synchronized void record(long nanos, boolean success) {
+        long duration = Math.max(0, nanos);
+        histogram[bucket(duration)]++;
+        count++;
+        if (!success) {
+            errorCount++;
+        }
+        totalNanos += duration;
+        maxNanos = Math.max(maxNanos, duration);
+    }
+
+    /**
+     * Records a successful operation started at given {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos, true);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return duration not exceeded by given percentage of the operations, zero if nothing was recorded
+     */
+    public synchronized long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count %d, errors %d, p50 %.1f ms, p95 %.1f ms, max %.1f ms, total %.1f ms", name,
+                getCount(), getErrorCount(), toMillis(getPercentileNanos(50)), toMillis(getPercentileNanos(95)),
+                toMillis(getMaxNanos()), toMillis(getTotalNanos()));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value falling into the bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
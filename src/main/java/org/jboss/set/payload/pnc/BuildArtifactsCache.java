@@ -0,0 +1,172 @@
+package org.jboss.set.payload.pnc;
+
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of PNC build artifacts, represented as GA -> version maps.
+ * <p>
+ * PNC builds are immutable, so cached entries never need to be revalidated. Entries are kept in memory for the
+ * duration of the run, and if a directory is given, also stored on disk: one gzipped file per build, named by the
+ * SHA-256 hash of the build ID and containing "groupId:artifactId version" lines. When the total size of the
+ * directory exceeds the limit, the least recently used files are deleted.
+ */
+public class BuildArtifactsCache {
+
+    private static final Logger logger = Logger.getLogger(BuildArtifactsCache.class);
+
+    private static final String FILE_SUFFIX = ".gz";
+
+    private final Map<String, Map<String, String>> memoryCache = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final long maxSizeInBytes;
+
+    /**
+     * Creates in-memory only cache.
+     */
+    public BuildArtifactsCache() {
+        this(null, 0);
+    }
+
+    /**
+     * @param directory directory to store the entries in, or null for in-memory only cache
+     * @param maxSizeInBytes maximum total size of the stored entries
+     */
+    public BuildArtifactsCache(Path directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * @return GA -> version map of the build, or null if the build isn't cached
+     */
+    public Map<String, String> get(String buildId) {
+        Map<String, String> artifacts = memoryCache.get(buildId);
+        if (artifacts == null && directory != null) {
+            Path file = file(buildId);
+            if (Files.exists(file)) {
+                try {
+                    artifacts = read(file);
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                    memoryCache.put(buildId, artifacts);
+                } catch (IOException e) {
+                    logger.warnf(e, "Can't read cached artifacts of PNC build %s.", buildId);
+                }
+            }
+        }
+        return artifacts;
+    }
+
+    public void put(String buildId, Map<String, String> artifacts) {
+        Map<String, String> copy = Collections.unmodifiableMap(new LinkedHashMap<>(artifacts));
+        memoryCache.put(buildId, copy);
+        if (directory != null) {
+            try {
+                write(file(buildId), copy);
+                evict();
+            } catch (IOException e) {
+                logger.warnf(e, "Can't store artifacts of PNC build %s.", buildId);
+            }
+        }
+    }
+
+    private Path file(String buildId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(buildId.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> read(Path file) throws IOException {
+        Map<String, String> artifacts = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    artifacts.put(line.substring(0, separator), line.substring(separator + 1));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(artifacts);
+    }
+
+    private void write(Path file, Map<String, String> artifacts) throws IOException {
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "build", ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile));
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : artifacts.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the least recently used entries until the total size fits the limit.
+     */
+    private synchronized void evict() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(f -> f.getFileName().toString().endsWith(FILE_SUFFIX)).toList();
+        }
+        long totalSize = 0;
+        for (Path file : files) {
+            totalSize += Files.size(file);
+        }
+        if (totalSize <= maxSizeInBytes) {
+            return;
+        }
+        List<Path> byLastUse = files.stream()
+                .sorted(Comparator.comparing(BuildArtifactsCache::lastModified))
+                .toList();
+        for (Path file : byLastUse) {
+            if (totalSize <= maxSizeInBytes) {
+                break;
+            }
+            long size = Files.size(file);
+            Files.deleteIfExists(file);
+            totalSize -= size;
+            logger.debugf("Evicted PNC build cache entry %s", file.getFileName());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -12,21 +12,38 @@ import org.jboss.pnc.client.RemoteResourceException;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.set.payload.ComponentUpgradeResolutionStrategy;
 import org.jboss.set.payload.ConfigKeys;
+import org.jboss.set.payload.Verdict;
 import org.jboss.set.payload.manifest.ManifestChecker;
+import org.jboss.set.payload.metrics.FlightRecording;
+import org.jboss.set.payload.metrics.Metrics;
+import org.jboss.set.payload.metrics.RemoteCallEvent;
+import org.wildfly.channel.version.VersionMatcher;
 
+import java.io.Closeable;
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class PncResolutionStrategy implements ComponentUpgradeResolutionStrategy {
+public class PncResolutionStrategy implements ComponentUpgradeResolutionStrategy, Closeable {
 
     /**
      * Pattern to extract PNC build ID from a URL posted in a text. If you change this, update the group number bellow.
      */
-    private static final Pattern BUILD_URL_PATTERN = Pattern.compile(".*(https://orch\\.psi\\.redhat\\.com/pnc-web/(.*/)?builds/([a-zA-Z0-9]+)).*");
+    private static final Pattern BUILD_URL_PATTERN = Pattern.compile("(https://orch\\.psi\\.redhat\\.com/pnc-web/(\\S*/)?builds/([a-zA-Z0-9]+))");
     /**
      * Regexp group number that contains the PNC build ID.
      */
@@ -34,8 +51,16 @@ public class PncResolutionStrategy implements ComponentUpgradeResolutionStrategy
 
     private static final Logger logger = Logger.getLogger(PncResolutionStrategy.class);
 
+    private static final String CACHE_SUBDIRECTORY = "pnc-builds";
+
     private final BuildClient buildClient;
     private final ManifestChecker manifestChecker;
+    private final BuildArtifactsCache artifactsCache;
+    /**
+     * Shared by all issues, so that the number of concurrent PNC requests stays bounded even when issues are
+     * processed by several workers.
+     */
+    private final ExecutorService fetchExecutor;
 
     public PncResolutionStrategy(Config config, ManifestChecker manifestChecker) {
         this.manifestChecker = manifestChecker;
@@ -49,48 +74,169 @@ public class PncResolutionStrategy implements ComponentUpgradeResolutionStrategy
                 .build();
         buildClient = new BuildClient(configuration);
 
+        Optional<Path> cacheDir = config.getOptionalValue(ConfigKeys.CACHE_DIR, Path.class);
+        if (cacheDir.isPresent()) {
+            long maxSize = config.getOptionalValue(ConfigKeys.PNC_CACHE_MAX_SIZE, Long.class).orElse(100L);
+            artifactsCache = new BuildArtifactsCache(cacheDir.get().resolve(CACHE_SUBDIRECTORY), maxSize * 1024 * 1024);
+        } else {
+            artifactsCache = new BuildArtifactsCache();
+        }
+
+        int maxConcurrentRequests = Math.max(1,
+                config.getOptionalValue(ConfigKeys.PNC_MAX_CONCURRENT_REQUESTS, Integer.class).orElse(4));
+        AtomicInteger threadCounter = new AtomicInteger();
+        fetchExecutor = Executors.newFixedThreadPool(maxConcurrentRequests, runnable -> {
+            Thread thread = new Thread(runnable, "pnc-fetch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Verdict apply(Issue issue) {
+        Set<String> buildIds = findBuildIds(issue);
+        if (buildIds.isEmpty()) {
+            return Verdict.UNKNOWN;
+        }
+        logger.infof("%s: Found PNC build IDs %s", issue.getKey(), buildIds);
+
+        Map<String, String> gaToVersionMap = fetchArtifacts(issue.getKey(), buildIds);
+        if (gaToVersionMap == null) {
+            return Verdict.UNKNOWN;
+        }
+        return Verdict.of(gaToVersionMap,
+                manifestChecker.testAll(new ManifestChecker.ComponentQuery(issue.getKey(), gaToVersionMap)));
     }
 
     @Override
-    public Boolean apply(Issue issue) {
-        String buildId = findBuildId(issue);
-        if (buildId != null) {
-            try {
-                RemoteCollection<Artifact> artifacts = buildClient.getBuiltArtifacts(buildId);
-                Map<String, String> gaToVersionMap = new HashMap<>();
-                artifacts.forEach(artifact -> {
-                    SimpleArtifactRef artifactRef = SimpleArtifactRef.parse(artifact.getIdentifier());
-                    gaToVersionMap.put(artifactRef.getGroupId() + ":" + artifactRef.getArtifactId(), artifactRef.getVersionString());
-                });
-                return manifestChecker.test(new ManifestChecker.ComponentQuery(issue.getKey(), gaToVersionMap));
-            } catch (RemoteResourceException e) {
-                logger.error("Can't retrieve build artifacts from PNC API.", e);
+    public void close() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Retrieves artifacts of all given builds concurrently and merges them into a single GA -> version map.
+     *
+     * @return merged GA -> version map, or null if any of the builds couldn't be retrieved, as the artifacts of the
+     * remaining builds may not be enough to tell whether the component upgrade is covered
+     */
+    private Map<String, String> fetchArtifacts(String issueKey, Set<String> buildIds) {
+        return fetchArtifacts(issueKey, buildIds, fetchExecutor, buildId -> getBuiltArtifacts(issueKey, buildId));
+    }
+
+    static Map<String, String> fetchArtifacts(String issueKey, Set<String> buildIds, ExecutorService executor,
+                                              BuildArtifactsFetcher fetcher) {
+        List<Future<Map<String, String>>> futures = new ArrayList<>(buildIds.size());
+        for (String buildId : buildIds) {
+            futures.add(executor.submit(() -> fetcher.fetch(buildId)));
+        }
+
+        List<Map<String, String>> builds = new ArrayList<>(futures.size());
+        Iterator<String> buildIdIterator = buildIds.iterator();
+        try {
+            for (Future<Map<String, String>> future : futures) {
+                String buildId = buildIdIterator.next();
+                try {
+                    builds.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.errorf(e.getCause(), "%s: Can't retrieve artifacts of PNC build %s from PNC API, the "
+                            + "issue has to be checked manually.", issueKey, buildId);
+                    futures.forEach(remaining -> remaining.cancel(true));
+                    return null;
+                }
             }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            return null;
         }
-        return null; // Represents Unknown
+
+        return builds.isEmpty() ? null : mergeArtifacts(builds);
+    }
+
+    @FunctionalInterface
+    interface BuildArtifactsFetcher {
+        Map<String, String> fetch(String buildId) throws Exception;
     }
 
     /**
-     * Scans through issue comments and tries to find a PNC build ID.
+     * Retrieves GA -> version map of artifacts built by given PNC build. PNC builds are immutable, so the result is
+     * served from the cache when possible.
+     */
+    private Map<String, String> getBuiltArtifacts(String issueKey, String buildId) throws RemoteResourceException {
+        Map<String, String> gaToVersionMap = artifactsCache.get(buildId);
+        if (gaToVersionMap != null) {
+            logger.debugf("Using cached artifacts of PNC build %s", buildId);
+            return gaToVersionMap;
+        }
+        // The collection pages lazily, so the timer includes the iteration.
+        long start = System.nanoTime();
+        RemoteCallEvent event = FlightRecording.isEnabled()
+                ? new RemoteCallEvent(Metrics.PNC_GET_BUILT_ARTIFACTS, issueKey) : null;
+        Throwable failure = null;
+        try {
+            RemoteCollection<Artifact> artifacts = buildClient.getBuiltArtifacts(buildId);
+            gaToVersionMap = new HashMap<>();
+            for (Artifact artifact : artifacts) {
+                SimpleArtifactRef artifactRef = SimpleArtifactRef.parse(artifact.getIdentifier());
+                gaToVersionMap.put(artifactRef.getGroupId() + ":" + artifactRef.getArtifactId(), artifactRef.getVersionString());
+            }
+        } catch (RemoteResourceException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            Metrics.timer(Metrics.PNC_GET_BUILT_ARTIFACTS).record(System.nanoTime() - start, failure == null);
+            if (event != null) {
+                event.attempt = 1;
+                event.complete(failure);
+            }
+        }
+        artifactsCache.put(buildId, gaToVersionMap);
+        return gaToVersionMap;
+    }
+
+    /**
+     * Merges GA -> version maps of several builds, keeping the highest version of each GA.
+     */
+    static Map<String, String> mergeArtifacts(List<Map<String, String>> builds) {
+        if (builds.size() == 1) {
+            return builds.get(0);
+        }
+        Map<String, String> merged = new HashMap<>();
+        for (Map<String, String> build : builds) {
+            build.forEach((ga, version) -> merged.merge(ga, version,
+                    (first, second) -> VersionMatcher.COMPARATOR.compare(first.trim(), second.trim()) >= 0 ? first : second));
+        }
+        return merged;
+    }
+
+    /**
+     * Scans through issue comments and collects all PNC build IDs, in the order they were posted.
      *
      * @param issue Jira issue
-     * @return PNC build ID
+     * @return PNC build IDs, empty if none were found
      */
-    private static String findBuildId(Issue issue) {
-        String buildId = null;
+    private static Set<String> findBuildIds(Issue issue) {
+        Set<String> buildIds = new LinkedHashSet<>();
         for (Comment comment : issue.getComments()) {
-            List<String> lines = comment.getBody().lines().toList();
-            for (String line : lines) {
-                if (line.toLowerCase().contains("https://orch.psi.redhat.com/pnc-web/")) {
-                    Matcher matcher = BUILD_URL_PATTERN.matcher(line);
-                    if (matcher.find()) {
-                        buildId = matcher.group(BUILD_ID_PATTERN_GROUP);
-                        logger.infof("%s: Found PNC build ID %s", issue.getKey(), buildId);
-                    }
+            buildIds.addAll(findBuildIdsInText(comment.getBody()));
+        }
+        return buildIds;
+    }
+
+    /**
+     * Finds all PNC build IDs referenced in given text.
+     */
+    static Set<String> findBuildIdsInText(String text) {
+        Set<String> buildIds = new LinkedHashSet<>();
+        for (String line : text.lines().toList()) {
+            if (line.toLowerCase().contains("https://orch.psi.redhat.com/pnc-web/")) {
+                Matcher matcher = BUILD_URL_PATTERN.matcher(line);
+                while (matcher.find()) {
+                    buildIds.add(matcher.group(BUILD_ID_PATTERN_GROUP));
                 }
             }
         }
-        return buildId;
+        return buildIds;
     }
 
 }
@@ -0,0 +1,38 @@
+package org.jboss.set.payload.verdicts;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verdict on whether an issue is covered by a manifest, together with its provenance.
+ *
+ * @param issueKey issue key
+ * @param manifestReference reference of the manifest the issue was checked against
+ * @param strategy name of the resolution strategy that decided, or null if none could
+ * @param outcome true if the issue was covered by the manifest, false if it wasn't, null if unknown
+ * @param artifacts GA -> version map of the upgrade artifacts the outcome was based on
+ * @param issueUpdated update time of the issue at the time of resolution, in epoch millis
+ * @param resolvedAt time of resolution, in epoch millis
+ */
+public record VerdictRecord(String issueKey, String manifestReference, String strategy, Boolean outcome,
+                            Map<String, String> artifacts, long issueUpdated, long resolvedAt) {
+
+    /**
+     * The verdict still holds for the new manifest if the issue hasn't changed since, and none of the artifacts
+     * it was based on belongs to a manifest stream that has changed.
+     *
+     * @param currentIssueUpdated current update time of the issue, in epoch millis
+     * @param changedStreams GAs of the streams that differ between the previous and the current manifest
+     */
+    public boolean canBeCarriedForward(long currentIssueUpdated, Set<String> changedStreams) {
+        return issueUpdated == currentIssueUpdated && Collections.disjoint(artifacts.keySet(), changedStreams);
+    }
+
+    /**
+     * @return copy of this verdict, attributed to another manifest
+     */
+    public VerdictRecord forManifest(String manifestReference) {
+        return new VerdictRecord(issueKey, manifestReference, strategy, outcome, artifacts, issueUpdated, resolvedAt);
+    }
+}
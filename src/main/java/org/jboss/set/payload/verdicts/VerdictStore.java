@@ -0,0 +1,310 @@
+package org.jboss.set.payload.verdicts;
+
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent store of issue verdicts, one per issue and manifest reference.
+ * <p>
+ * Verdicts are appended to a data file as length-prefixed binary records with a CRC32 checksum, a newer verdict
+ * superseding the older one of the same issue and manifest. The index file maps the issue keys to the offsets of
+ * their latest records, so that a verdict can be looked up without reading the whole data file. The index is written
+ * on close; records appended after the last index was written (e.g. when the previous run crashed) are recovered by
+ * scanning the tail of the data file, and an incomplete last record is truncated. When superseded records take up
+ * most of the data file, it's compacted on close.
+ */
+public class VerdictStore implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(VerdictStore.class);
+
+    static final String DATA_FILE = "verdicts.dat";
+    static final String INDEX_FILE = "verdicts.idx";
+
+    private static final int INDEX_MAGIC = 0x56524458;
+    private static final int FORMAT_VERSION = 1;
+    private static final int COMPACTION_MIN_RECORDS = 1000;
+
+    private static final byte OUTCOME_FALSE = 0;
+    private static final byte OUTCOME_TRUE = 1;
+    private static final byte OUTCOME_UNKNOWN = 2;
+
+    private final Path directory;
+    private final FileChannel data;
+    /**
+     * Issue key -> manifest reference -> offset of the latest record.
+     */
+    private final Map<String, Map<String, Long>> index = new HashMap<>();
+    private long dataLength;
+    private long recordCount;
+    private int verdictCount;
+
+    public VerdictStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        data = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        scan(readIndex());
+    }
+
+    /**
+     * @return the latest verdict of the issue for given manifest, or null
+     */
+    public synchronized VerdictRecord get(String issueKey, String manifestReference) throws IOException {
+        Long offset = index.getOrDefault(issueKey, Map.of()).get(manifestReference);
+        return offset != null ? read(offset) : null;
+    }
+
+    /**
+     * @return the latest verdicts of the issue, one for each manifest it was checked against
+     */
+    public synchronized List<VerdictRecord> get(String issueKey) throws IOException {
+        List<VerdictRecord> verdicts = new ArrayList<>();
+        for (long offset : index.getOrDefault(issueKey, Map.of()).values()) {
+            verdicts.add(read(offset));
+        }
+        return verdicts;
+    }
+
+    public synchronized void append(VerdictRecord verdict) throws IOException {
+        byte[] payload = encode(verdict);
+        ByteBuffer buffer = ByteBuffer.allocate(payload.length + 8);
+        buffer.putInt(payload.length).put(payload).putInt(checksum(payload)).flip();
+        long offset = dataLength;
+        while (buffer.hasRemaining()) {
+            dataLength += data.write(buffer, dataLength);
+        }
+        put(verdict.issueKey(), verdict.manifestReference(), offset);
+    }
+
+    /**
+     * @return number of verdicts, not counting the superseded ones
+     */
+    public synchronized int size() {
+        return verdictCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.force(false);
+            if (recordCount >= COMPACTION_MIN_RECORDS && recordCount > 2L * verdictCount) {
+                compact();
+            }
+            writeIndex();
+        } finally {
+            data.close();
+        }
+    }
+
+    private void put(String issueKey, String manifestReference, long offset) {
+        if (index.computeIfAbsent(issueKey, k -> new LinkedHashMap<>()).put(manifestReference, offset) == null) {
+            verdictCount++;
+        }
+        recordCount++;
+    }
+
+    private VerdictRecord read(long offset) throws IOException {
+        ByteBuffer header = readFully(offset, 4);
+        byte[] payload = readFully(offset + 4, header.getInt()).array();
+        return decode(payload);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + DATA_FILE);
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Indexes the records from given offset to the end of the data file, truncating an incomplete last record.
+     */
+    private void scan(long from) throws IOException {
+        long size = data.size();
+        long offset = from;
+        int recovered = 0;
+        while (offset < size) {
+            if (size - offset < 8) {
+                break;
+            }
+            int length = readFully(offset, 4).getInt();
+            if (length < 0 || length > size - offset - 8) {
+                break;
+            }
+            byte[] payload = readFully(offset + 4, length).array();
+            if (readFully(offset + 4 + length, 4).getInt() != checksum(payload)) {
+                break;
+            }
+            VerdictRecord verdict = decode(payload);
+            put(verdict.issueKey(), verdict.manifestReference(), offset);
+            offset += length + 8;
+            recovered++;
+        }
+        if (offset < size) {
+            logger.warnf("Discarding incomplete verdict record at offset %d of %s.", offset, DATA_FILE);
+            data.truncate(offset);
+        }
+        if (recovered > 0 && from > 0) {
+            logger.infof("Recovered %d verdicts missing in the index.", recovered);
+        }
+        dataLength = offset;
+    }
+
+    /**
+     * @return length of the data file covered by the index, zero if there is no valid index
+     */
+    private long readIndex() {
+        Path indexFile = directory.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.warnf("Unsupported format of %s, rebuilding the index.", indexFile);
+                return 0;
+            }
+            long coveredLength = in.readLong();
+            long records = in.readLong();
+            if (coveredLength > data.size()) {
+                logger.warnf("Verdict index %s doesn't match the data file, rebuilding the index.", indexFile);
+                return 0;
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                put(in.readUTF(), in.readUTF(), in.readLong());
+            }
+            recordCount = records;
+            return coveredLength;
+        } catch (IOException e) {
+            logger.warnf(e, "Can't read verdict index %s, rebuilding the index.", indexFile);
+            index.clear();
+            recordCount = 0;
+            verdictCount = 0;
+            return 0;
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        Path tempFile = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(dataLength);
+            out.writeLong(recordCount);
+            out.writeInt(verdictCount);
+            for (Map.Entry<String, Map<String, Long>> issue : index.entrySet()) {
+                for (Map.Entry<String, Long> manifest : issue.getValue().entrySet()) {
+                    out.writeUTF(issue.getKey());
+                    out.writeUTF(manifest.getKey());
+                    out.writeLong(manifest.getValue());
+                }
+            }
+        }
+        Files.move(tempFile, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rewrites the data file with the latest records only, keeping their order.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<String, Long>> offsets = new ArrayList<>();
+        for (Map<String, Long> manifests : index.values()) {
+            manifests.entrySet().forEach(offsets::add);
+        }
+        offsets.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+
+        Path tempFile = Files.createTempFile(directory, DATA_FILE, ".tmp");
+        long newLength = 0;
+        try (FileChannel compacted = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, Long> entry : offsets) {
+                long offset = entry.getValue();
+                int recordLength = readFully(offset, 4).getInt() + 8;
+                ByteBuffer record = readFully(offset, recordLength);
+                while (record.hasRemaining()) {
+                    compacted.write(record);
+                }
+                entry.setValue(newLength);
+                newLength += recordLength;
+            }
+            compacted.force(false);
+        }
+        Files.move(tempFile, directory.resolve(DATA_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        logger.infof("Compacted %s from %d to %d records.", DATA_FILE, recordCount, verdictCount);
+        dataLength = newLength;
+        recordCount = verdictCount;
+    }
+
+    private static byte[] encode(VerdictRecord verdict) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(verdict.issueKey());
+            out.writeUTF(verdict.manifestReference());
+            out.writeBoolean(verdict.strategy() != null);
+            if (verdict.strategy() != null) {
+                out.writeUTF(verdict.strategy());
+            }
+            out.writeByte(verdict.outcome() == null ? OUTCOME_UNKNOWN
+                    : verdict.outcome() ? OUTCOME_TRUE : OUTCOME_FALSE);
+            out.writeLong(verdict.issueUpdated());
+            out.writeLong(verdict.resolvedAt());
+            out.writeInt(verdict.artifacts().size());
+            for (Map.Entry<String, String> artifact : verdict.artifacts().entrySet()) {
+                out.writeUTF(artifact.getKey());
+                out.writeUTF(artifact.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static VerdictRecord decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String issueKey = in.readUTF();
+            String manifestReference = in.readUTF();
+            String strategy = in.readBoolean() ? in.readUTF() : null;
+            byte outcome = in.readByte();
+            long issueUpdated = in.readLong();
+            long resolvedAt = in.readLong();
+            int artifactCount = in.readInt();
+            Map<String, String> artifacts = new LinkedHashMap<>();
+            for (int i = 0; i < artifactCount; i++) {
+                artifacts.put(in.readUTF(), in.readUTF());
+            }
+            return new VerdictRecord(issueKey, manifestReference, strategy,
+                    outcome == OUTCOME_UNKNOWN ? null : outcome == OUTCOME_TRUE,
+                    Collections.unmodifiableMap(artifacts), issueUpdated, resolvedAt);
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
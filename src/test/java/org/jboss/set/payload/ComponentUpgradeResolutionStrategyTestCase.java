@@ -0,0 +1,49 @@
+package org.jboss.set.payload;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ComponentUpgradeResolutionStrategyTestCase {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testApplyAsync() throws Exception {
+        ComponentUpgradeResolutionStrategy strategy = issue -> Verdict.uniform(true);
+
+        Assert.assertEquals(Boolean.TRUE, strategy.applyAsync(null, executor).get(5, TimeUnit.SECONDS).get(0));
+    }
+
+    @Test
+    public void testCancellationInterruptsStrategy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ComponentUpgradeResolutionStrategy strategy = issue -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return Verdict.UNKNOWN;
+        };
+
+        CompletableFuture<Verdict> verdict = strategy.applyAsync(null, executor);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        verdict.cancel(true);
+
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
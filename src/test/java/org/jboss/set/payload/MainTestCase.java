@@ -3,8 +3,11 @@ package org.jboss.set.payload;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public class MainTestCase {
 
@@ -25,4 +28,36 @@ public class MainTestCase {
         Assert.assertTrue(items.contains("bla"));
         Assert.assertTrue(items.contains("blu"));
     }
+
+    @Test
+    public void testManifestListParsing() {
+        Assert.assertEquals(List.of("eap.yaml", "xp.yaml", "eap.yaml"),
+                Main.parseCommaSeparatedOrderedList(" eap.yaml, xp.yaml,eap.yaml"));
+        Assert.assertEquals("org.jboss.eap.channels_eap-8.1_1.0.0.CR1",
+                Main.reportSuffix("org.jboss.eap.channels:eap-8.1:1.0.0.CR1"));
+    }
+
+    @Test
+    public void testCloseAll() {
+        List<String> closed = new ArrayList<>();
+        IOException first = new IOException("first");
+        List<Closeable> closeables = List.of(
+                () -> {
+                    closed.add("cache");
+                    throw first;
+                },
+                () -> {
+                    closed.add("reports");
+                    throw new IllegalStateException("second");
+                },
+                () -> closed.add("cassette"));
+        try {
+            Main.closeAll(closeables);
+            Assert.fail("Expected the first failure to be thrown");
+        } catch (IOException e) {
+            Assert.assertSame(first, e);
+            Assert.assertEquals(1, e.getSuppressed().length);
+        }
+        Assert.assertEquals(List.of("cache", "reports", "cassette"), closed);
+    }
 }
@@ -0,0 +1,127 @@
+package org.jboss.set.payload.cassette;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CassetteTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger counter = new AtomicInteger();
+    private HttpServer service;
+    private URI serviceUri;
+
+    @Before
+    public void startService() throws IOException {
+        // Answers with a counter, so that repeated requests get different responses, and a link to itself.
+        service = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        service.createContext("/", exchange -> {
+            String self = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                    + service.getAddress().getPort() + exchange.getRequestURI();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] response = ("{\"self\":\"" + self + "\",\"count\":" + counter.incrementAndGet()
+                    + ",\"body\":\"" + body + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/missing") ? 404 : 200,
+                    response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+            exchange.close();
+        });
+        service.start();
+        serviceUri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + service.getAddress().getPort() + "/rest/api/2");
+    }
+
+    @After
+    public void stopService() {
+        service.stop(0);
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.cassette");
+
+        Cassette recorded = new Cassette();
+        try (CassetteProxy proxy = CassetteProxy.recording("jira.url", serviceUri, recorded)) {
+            URI base = proxy.redirect(serviceUri);
+            Assert.assertEquals(proxy.getOrigin() + "/rest/api/2", base.toString());
+
+            String recordedFirst = get(base.resolve("2/issue/A-1?fields=summary"));
+            get(base.resolve("2/issue/A-1?fields=summary"));
+            Assert.assertEquals(404, send(HttpRequest.newBuilder(base.resolve("2/missing")).build()).statusCode());
+            post(base.resolve("2/issue/A-1/comment"), "first");
+            post(base.resolve("2/issue/A-1/comment"), "second");
+
+            // Links to the service are redirected to the proxy.
+            Assert.assertTrue(recordedFirst,
+                    recordedFirst.contains("\"self\":\"" + proxy.getOrigin() + "/rest/api/2/issue/A-1"));
+            Assert.assertEquals(5, proxy.getServedCount());
+        }
+        recorded.save(file);
+        service.stop(0);
+
+        Cassette cassette = Cassette.load(file);
+        Assert.assertEquals(5, cassette.size());
+        try (CassetteProxy proxy = CassetteProxy.replaying("jira.url", cassette, false)) {
+            URI base = proxy.redirect(serviceUri);
+
+            String first = get(base.resolve("2/issue/A-1?fields=summary"));
+            Assert.assertTrue(first, first.contains("\"self\":\"" + proxy.getOrigin() + "/rest/api/2/issue/A-1"));
+            Assert.assertTrue(first.contains("\"count\":1"));
+            Assert.assertTrue(get(base.resolve("2/issue/A-1?fields=summary")).contains("\"count\":2"));
+            // The last response is repeated.
+            Assert.assertTrue(get(base.resolve("2/issue/A-1?fields=summary")).contains("\"count\":2"));
+
+            HttpResponse<String> missing = send(HttpRequest.newBuilder(base.resolve("2/missing")).build());
+            Assert.assertEquals(404, missing.statusCode());
+            Assert.assertEquals("1", missing.headers().firstValue("Retry-After").orElse(null));
+
+            // Requests are matched by their bodies too.
+            Assert.assertTrue(post(base.resolve("2/issue/A-1/comment"), "second").contains("\"count\":5"));
+            Assert.assertTrue(post(base.resolve("2/issue/A-1/comment"), "first").contains("\"count\":4"));
+
+            Assert.assertEquals(404, send(HttpRequest.newBuilder(base.resolve("2/issue/A-2")).build()).statusCode());
+            Assert.assertEquals(1, proxy.getMissedCount());
+        }
+    }
+
+    private String get(URI uri) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri).build());
+        Assert.assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    private String post(URI uri, String body) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        Assert.assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -48,6 +48,14 @@ public class DependencyGroupsTestCase {
         Assert.assertNull(artifacts); // null due to multiple wildfly-ee artifactIds existing - ambiguity
     }
 
+    @Test
+    public void testMatchingByNormalizedName() throws Exception {
+        DependencyGroupLookup lookup = new DependencyGroupLookup(new File("dependency-groups.yaml"));
+        Assert.assertEquals(lookup.findArtifacts("jboss-eap"), lookup.findArtifacts("JBoss EAP"));
+        Assert.assertEquals(lookup.findArtifacts("jboss-eap"), lookup.findArtifacts("JBoss_EAP"));
+        Assert.assertNull(lookup.findArtifacts("no-such-component"));
+    }
+
     private static List<DependencyGroup> loadDependencyGroups() throws Exception {
         YAMLMapper mapper = YAMLMapper.builder().build();
         JavaType type = mapper.getTypeFactory().constructParametricType(List.class, DependencyGroup.class);
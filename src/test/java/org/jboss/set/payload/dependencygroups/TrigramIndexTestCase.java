@@ -0,0 +1,65 @@
+package org.jboss.set.payload.dependencygroups;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Map;
+
+public class TrigramIndexTestCase {
+
+    private final TrigramIndex<String> index = TrigramIndex.of(Map.of(
+            "hibernate", "hibernate",
+            "hibernate search", "hibernate-search",
+            "netty", "netty",
+            "netty-tcnative", "netty-tcnative",
+            "undertow", "undertow"));
+
+    @Test
+    public void testSimilarNames() {
+        Assert.assertEquals("hibernate", index.findBest("Hibernate ORM", 0.75).value());
+        Assert.assertEquals("hibernate-search", index.findBest("Hibernate Search", 0.75).value());
+        Assert.assertEquals("netty", index.findBest("netty-4", 0.75).value());
+        Assert.assertEquals("undertow", index.findBest("Undertow-core", 0.6).value());
+    }
+
+    @Test
+    public void testThreshold() {
+        Assert.assertNull(index.findBest("jakarta-faces", 0.75));
+        Assert.assertNull(index.findBest("Hibernate ORM", 0.9));
+        Assert.assertNull(index.findBest("", 0.1));
+    }
+
+    @Test
+    public void testAmbiguous() {
+        TrigramIndex<String> ambiguous = TrigramIndex.of(Map.of("netty a", "first", "netty b", "second"));
+        Assert.assertNull(ambiguous.findBest("netty", 0.1));
+    }
+
+    @Test
+    public void testDependencyGroupLookup() throws Exception {
+        DependencyGroupLookup lookup = new DependencyGroupLookup(new File("dependency-groups.yaml"));
+        Assert.assertEquals(lookup.findArtifacts("jboss-eap"), lookup.findArtifacts("jboss-eap-8.1"));
+        Assert.assertNull(lookup.findArtifacts("no-such-component"));
+        Assert.assertFalse(lookup.findGroup("jboss-eap").fuzzy());
+        // Same as the "jboss-eap8" alias once normalized.
+        Assert.assertFalse(lookup.findGroup("jboss-eap-8").fuzzy());
+        Assert.assertTrue(lookup.findGroup("jboss-eap-8.1").fuzzy());
+        Assert.assertEquals(1, lookup.findGroup("jboss-eap").score(), 0);
+    }
+
+    @Test
+    public void testFuzzyGroupMatchDetails() throws Exception {
+        DependencyGroupLookup lookup = new DependencyGroupLookup(new File("dependency-groups.yaml"));
+        DependencyGroupLookup.GroupMatch exact = lookup.findGroup("jboss-eap");
+        // A different product with a similar name stays below the threshold of trusted fuzzy matches.
+        DependencyGroupLookup.GroupMatch match = lookup.findGroup("jboss-eap-xp");
+        Assert.assertTrue(match.fuzzy());
+        Assert.assertEquals(exact.component(), match.component());
+        Assert.assertEquals("jboss eap", match.matchedName());
+        Assert.assertTrue(match.score() >= DependencyGroupLookup.DEFAULT_FUZZY_MATCH_THRESHOLD);
+        Assert.assertTrue(match.score() < DependencyGroupLookup.DEFAULT_FUZZY_ACCEPT_THRESHOLD);
+        Assert.assertEquals("dependency group '" + exact.component() + "' (similar name 'jboss eap', score 0.89)",
+                match.describe());
+    }
+}
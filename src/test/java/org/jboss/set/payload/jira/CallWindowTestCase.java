@@ -0,0 +1,59 @@
+package org.jboss.set.payload.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class CallWindowTestCase {
+
+    private final List<Integer> started = new ArrayList<>();
+    private final CallWindow window = new CallWindow(2, Runnable::run);
+
+    @Test
+    public void testCallsOverLimitWaitInOrder() {
+        List<CompletableFuture<Void>> results = submit(5);
+        Assert.assertEquals(List.of(0, 1), started);
+        Assert.assertEquals(2, window.getInFlight());
+        Assert.assertEquals(3, window.getQueued());
+
+        results.get(1).complete(null);
+        Assert.assertEquals(List.of(0, 1, 2), started);
+        results.get(0).completeExceptionally(new RuntimeException());
+        Assert.assertEquals(List.of(0, 1, 2, 3), started);
+        Assert.assertEquals(2, window.getInFlight());
+
+        results.forEach(result -> result.complete(null));
+        Assert.assertEquals(List.of(0, 1, 2, 3, 4), started);
+        Assert.assertEquals(0, window.getInFlight());
+        Assert.assertEquals(0, window.getQueued());
+    }
+
+    @Test
+    public void testCancelledCallsAreNotStarted() {
+        List<CompletableFuture<Void>> results = submit(4);
+        results.get(2).cancel(false);
+
+        results.get(0).complete(null);
+        Assert.assertEquals(List.of(0, 1, 3), started);
+        Assert.assertEquals(2, window.getInFlight());
+        Assert.assertEquals(0, window.getQueued());
+
+        results.get(1).complete(null);
+        results.get(3).complete(null);
+        Assert.assertEquals(0, window.getInFlight());
+    }
+
+    private List<CompletableFuture<Void>> submit(int count) {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int call = i;
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            results.add(result);
+            window.submit(result, () -> started.add(call));
+        }
+        return results;
+    }
+}
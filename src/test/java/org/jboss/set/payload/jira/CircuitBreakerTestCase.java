@@ -0,0 +1,53 @@
+package org.jboss.set.payload.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTestCase {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimiter rateLimiter = new RateLimiter(0, 1, clock::get);
+    private final RetryStatistics statistics = new RetryStatistics();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(rateLimiter, statistics, 1000, 60_000, clock::get);
+
+    @Test
+    public void testOpensOnErrorSpikeAndThrottles() {
+        for (int i = 0; i < CircuitBreaker.WINDOW_SIZE; i++) {
+            circuitBreaker.recordSuccess();
+        }
+        for (int i = 0; i < CircuitBreaker.WINDOW_SIZE / 2 - 1; i++) {
+            circuitBreaker.recordFailure();
+        }
+        Assert.assertFalse(circuitBreaker.isOpen());
+        Assert.assertEquals(0, rateLimiter.reserve());
+
+        circuitBreaker.recordFailure();
+        Assert.assertTrue(circuitBreaker.isOpen());
+        Assert.assertEquals(1, statistics.getCircuitOpenings());
+
+        // Throttled rate limiter spaces requests.
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), rateLimiter.reserve());
+    }
+
+    @Test
+    public void testClosesAfterCoolDown() {
+        for (int i = 0; i < CircuitBreaker.WINDOW_SIZE; i++) {
+            circuitBreaker.recordFailure();
+        }
+        Assert.assertTrue(circuitBreaker.isOpen());
+
+        // Successes within the cool-down period don't close the breaker.
+        circuitBreaker.recordSuccess();
+        Assert.assertTrue(circuitBreaker.isOpen());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        circuitBreaker.recordSuccess();
+        Assert.assertFalse(circuitBreaker.isOpen());
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(0, rateLimiter.reserve());
+    }
+}
@@ -0,0 +1,76 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.JiraRestClient;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import io.atlassian.util.concurrent.Promises;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FaultTolerantIssueClientTestCase {
+
+    private static final String LABEL = "payload-linker-verified";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> updatedIssues = new ArrayList<>();
+
+    @Test
+    public void testDryRunDoesNotChangeCachedIssue() throws Exception {
+        Path cacheFile = temporaryFolder.getRoot().toPath().resolve("issues.json.gz");
+        Issue issue = loadIssue();
+        Assert.assertFalse(issue.getLabels().contains(LABEL));
+
+        PersistentIssueCache dryRunCache = new PersistentIssueCache(cacheFile);
+        dryRunCache.put(issue);
+        try (FaultTolerantIssueClient dryClient = client(dryRunCache, true)) {
+            dryClient.updateIssue(dryClient.getIssue(issue.getKey()), List.of("8.1.0.GA.CR1"), LABEL);
+        }
+        dryRunCache.save();
+        Assert.assertTrue(updatedIssues.isEmpty());
+
+        PersistentIssueCache cache = new PersistentIssueCache(cacheFile);
+        Assert.assertFalse(cache.get(issue.getKey()).getLabels().contains(LABEL));
+        try (FaultTolerantIssueClient client = client(cache, false)) {
+            client.updateIssue(client.getIssue(issue.getKey()), List.of("8.1.0.GA.CR1"), LABEL);
+        }
+        Assert.assertEquals(List.of(issue.getKey()), updatedIssues);
+    }
+
+    /**
+     * @return client of a Jira stub recording the updated issues
+     */
+    private FaultTolerantIssueClient client(IssueCache issueCache, boolean dryMode) {
+        IssueRestClient issueRestClient = (IssueRestClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {IssueRestClient.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("updateIssue")) {
+                        updatedIssues.add((String) args[0]);
+                        return Promises.promise(null);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        JiraRestClient jiraClient = (JiraRestClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {JiraRestClient.class},
+                (proxy, method, args) -> method.getName().equals("getIssueClient") ? issueRestClient : null);
+        return new FaultTolerantIssueClient(jiraClient, new RateLimiter(0, 1), 1, new RetryPolicy(1, 0, 0, 60_000),
+                0, issueCache, dryMode);
+    }
+
+    private Issue loadIssue() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("jira-issue.json")) {
+            Assert.assertNotNull(in);
+            return IssueJsonWriter.parse(new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Comment;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueField;
+import com.atlassian.jira.rest.client.api.domain.Version;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class IssueJsonWriterTestCase {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Issue original = IssueJsonWriter.parse(loadJson("jira-issue.json"));
+        Issue copy = IssueJsonWriter.parse(new JSONObject(IssueJsonWriter.write(original).toString()));
+
+        Assert.assertEquals(original.getKey(), copy.getKey());
+        Assert.assertEquals(original.getSummary(), copy.getSummary());
+        Assert.assertEquals("Component Upgrade", copy.getIssueType().getName());
+        Assert.assertEquals("Resolved", copy.getStatus().getName());
+        Assert.assertEquals("Done", copy.getResolution().getName());
+        Assert.assertTrue(original.getUpdateDate().isEqual(copy.getUpdateDate()));
+        Assert.assertEquals(original.getLabels(), copy.getLabels());
+        Assert.assertEquals(List.of("8.1.0.GA.CR1"), names(copy.getFixVersions()));
+        Assert.assertEquals(original.getCommentsUri(), copy.getCommentsUri());
+
+        Comment comment = copy.getComments().iterator().next();
+        Assert.assertTrue(comment.getBody().contains("pnc-web/builds/AB1234CD"));
+
+        Assert.assertEquals(List.of("JBEAP-27000"), IssueLinks.incorporatedIssueKeys(copy));
+
+        IssueField targetRelease = copy.getFieldByName(JiraConstants.TARGET_RELEASE);
+        Assert.assertNotNull(targetRelease);
+        Assert.assertEquals("8.1.0.GA", ((JSONObject) targetRelease.getValue()).getString("name"));
+    }
+
+    private static List<String> names(Iterable<Version> versions) {
+        List<String> names = new ArrayList<>();
+        versions.forEach(v -> names.add(v.getName()));
+        return names;
+    }
+
+    private JSONObject loadJson(String resource) throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            Assert.assertNotNull(in);
+            return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.jboss.set.payload.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimiterTestCase {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testDisabled() {
+        RateLimiter rateLimiter = new RateLimiter(0, 1, clock::get);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(0, rateLimiter.reserve());
+        }
+    }
+
+    @Test
+    public void testSpacing() {
+        RateLimiter rateLimiter = new RateLimiter(500, 1, clock::get);
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(500 * MS, rateLimiter.reserve());
+        Assert.assertEquals(1000 * MS, rateLimiter.reserve());
+
+        // After the reserved slots pass, the next request gets the following slot.
+        clock.set(1000 * MS);
+        Assert.assertEquals(500 * MS, rateLimiter.reserve());
+    }
+
+    @Test
+    public void testBurst() {
+        RateLimiter rateLimiter = new RateLimiter(100, 3, clock::get);
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(100 * MS, rateLimiter.reserve());
+
+        // Bucket refills up to the burst size only.
+        clock.set(10_000 * MS);
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(0, rateLimiter.reserve());
+        Assert.assertEquals(100 * MS, rateLimiter.reserve());
+    }
+
+    @Test
+    public void testThrottleWhileInDebt() {
+        RateLimiter rateLimiter = new RateLimiter(500, 1, clock::get);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i * 500 * MS, rateLimiter.reserve());
+        }
+
+        // The reservations handed out so far end at 2000 ms, the next one is spaced by the throttled interval.
+        rateLimiter.throttle(2000);
+        Assert.assertEquals(4000 * MS, rateLimiter.reserve());
+
+        // Restoring the rate keeps the reservations, the following ones are spaced by the configured interval again.
+        rateLimiter.unthrottle();
+        Assert.assertEquals(4500 * MS, rateLimiter.reserve());
+
+        clock.set(4500 * MS);
+        Assert.assertEquals(500 * MS, rateLimiter.reserve());
+    }
+
+    @Test
+    public void testPeekDelay() {
+        RateLimiter rateLimiter = new RateLimiter(500, 2, clock::get);
+        Assert.assertEquals(0, rateLimiter.peekDelay());
+        rateLimiter.reserve();
+        rateLimiter.reserve();
+        Assert.assertEquals(500 * MS, rateLimiter.peekDelay());
+        // Peeking doesn't take a token.
+        Assert.assertEquals(500 * MS, rateLimiter.reserve());
+        Assert.assertEquals(1000 * MS, rateLimiter.peekDelay());
+
+        clock.set(250 * MS);
+        Assert.assertEquals(750 * MS, rateLimiter.peekDelay());
+    }
+}
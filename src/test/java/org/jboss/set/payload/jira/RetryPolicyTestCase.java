@@ -0,0 +1,55 @@
+package org.jboss.set.payload.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class RetryPolicyTestCase {
+
+    private final RetryPolicy policy = new RetryPolicy(5, 1000, 8000, 60_000);
+
+    @Test
+    public void testBackoffGrowsWithinBounds() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(500, 1000, policy.backoffMillis(1, null));
+            assertBetween(1000, 2000, policy.backoffMillis(2, null));
+            assertBetween(2000, 4000, policy.backoffMillis(3, null));
+            assertBetween(4000, 8000, policy.backoffMillis(4, null));
+            assertBetween(4000, 8000, policy.backoffMillis(40, null));
+        }
+    }
+
+    @Test
+    public void testRetryAfterTakesPrecedence() {
+        Assert.assertEquals(30_000, policy.backoffMillis(1, 30_000L));
+        Assert.assertEquals(0, policy.backoffMillis(3, 0L));
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        Assert.assertNull(RetryPolicy.parseRetryAfter(null));
+        Assert.assertNull(RetryPolicy.parseRetryAfter("soon"));
+        Assert.assertEquals(Long.valueOf(120_000), RetryPolicy.parseRetryAfter(" 120 "));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(2));
+        assertBetween(60_000, 120_000, RetryPolicy.parseRetryAfter(date));
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        Assert.assertEquals(Long.valueOf(0), RetryPolicy.parseRetryAfter(past));
+    }
+
+    @Test
+    public void testIoErrorsAreRetryable() {
+        Assert.assertTrue(policy.isRetryable(new RuntimeException(new SocketTimeoutException())));
+        Assert.assertTrue(policy.isRetryable(new RuntimeException(new IOException("Connection reset"))));
+        Assert.assertFalse(policy.isRetryable(new IllegalStateException()));
+    }
+
+    private static void assertBetween(long min, long max, long value) {
+        Assert.assertTrue(String.format("%d not in <%d, %d>", value, min, max), value >= min && value <= max);
+    }
+}
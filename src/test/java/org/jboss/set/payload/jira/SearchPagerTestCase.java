@@ -0,0 +1,59 @@
+package org.jboss.set.payload.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class SearchPagerTestCase {
+
+    private final List<Integer> requests = new ArrayList<>();
+
+    @Test
+    public void testServerReturnsFewerIssuesThanRequested() throws Exception {
+        Issue issue = loadIssue();
+        // Jira caps maxResults at 50, while 100 issues are requested per page.
+        int total = 120;
+        SearchPager pager = new SearchPager(startAt -> {
+            requests.add(startAt);
+            int count = Math.min(50, total - startAt);
+            return CompletableFuture.completedFuture(
+                    new SearchResult(startAt, 50, total, Collections.nCopies(count, issue)));
+        }, 100);
+
+        int retrieved = 0;
+        while (pager.hasNext()) {
+            retrieved += pager.next().size();
+        }
+        Assert.assertEquals(total, retrieved);
+        Assert.assertEquals(List.of(0, 50, 100), requests);
+    }
+
+    @Test
+    public void testEmptyPageEndsSearch() {
+        // The total may be outdated, e.g. when issues stop matching the query during the search.
+        SearchPager pager = new SearchPager(startAt -> {
+            requests.add(startAt);
+            return CompletableFuture.completedFuture(new SearchResult(startAt, 100, 500, List.of()));
+        }, 100);
+
+        Assert.assertTrue(pager.next().isEmpty());
+        Assert.assertFalse(pager.hasNext());
+        Assert.assertEquals(List.of(0), requests);
+    }
+
+    private Issue loadIssue() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("jira-issue.json")) {
+            Assert.assertNotNull(in);
+            return IssueJsonWriter.parse(new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+    }
+}
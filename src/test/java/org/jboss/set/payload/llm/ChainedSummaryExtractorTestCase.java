@@ -0,0 +1,98 @@
+package org.jboss.set.payload.llm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChainedSummaryExtractorTestCase {
+
+    private static final List<String> SUMMARIES = List.of("Upgrade Undertow to 2.3.18.Final",
+            "Undertow needs the CVE fix from 2.3.18.Final");
+
+    @Test
+    public void testPrefetchDoesNotCallExtractorsWithoutBatching() {
+        CountingExtractor llm = new CountingExtractor(false);
+        ChainedSummaryExtractor chain = new ChainedSummaryExtractor(List.of(new PatternSummaryExtractor(), llm));
+
+        Assert.assertFalse(chain.prefetch(SUMMARIES));
+        Assert.assertEquals(0, llm.extractions.get());
+        Assert.assertTrue(llm.prefetched.isEmpty());
+    }
+
+    @Test
+    public void testPrefetchLeavesOutSummariesParsedByCheapExtractors() {
+        CountingExtractor llm = new CountingExtractor(true);
+        ChainedSummaryExtractor chain = new ChainedSummaryExtractor(List.of(new PatternSummaryExtractor(), llm));
+
+        Assert.assertTrue(chain.prefetch(SUMMARIES));
+        Assert.assertEquals(0, llm.extractions.get());
+        Assert.assertEquals(List.of("Undertow needs the CVE fix from 2.3.18.Final"), llm.prefetched);
+    }
+
+    @Test
+    public void testCancelledExtractionIsNotMiss() {
+        SummaryExtractor cancelled = new CountingExtractor(true) {
+            @Override
+            public ComponentUpgrade extractInfo(String summary) {
+                throw new CancellationException("Interrupted while waiting for summary extraction");
+            }
+        };
+        ChainedSummaryExtractor chain = new ChainedSummaryExtractor(List.of(new PatternSummaryExtractor(), cancelled));
+
+        try {
+            chain.extractInfo("Undertow needs the CVE fix from 2.3.18.Final");
+            Assert.fail("Expected the cancellation to be passed on");
+        } catch (CancellationException expected) {
+        }
+        Assert.assertEquals(0, chain.getMisses());
+        Assert.assertEquals(0, chain.getHits(1));
+
+        Assert.assertNotNull(chain.extractInfo("Upgrade Undertow to 2.3.18.Final"));
+        Assert.assertEquals(1, chain.getHits(0));
+        Assert.assertEquals(0, chain.getMisses());
+    }
+
+    /**
+     * Stands in for the LLM extractor, counting the synchronous extractions.
+     */
+    private static class CountingExtractor implements SummaryExtractor {
+
+        private final boolean batching;
+        private final AtomicInteger extractions = new AtomicInteger();
+        private final List<String> prefetched = new ArrayList<>();
+
+        CountingExtractor(boolean batching) {
+            this.batching = batching;
+        }
+
+        @Override
+        public ComponentUpgrade extractInfo(String summary) {
+            extractions.incrementAndGet();
+            return new ComponentUpgrade("undertow", "2.3.18.Final");
+        }
+
+        @Override
+        public boolean prefetch(Collection<String> summaries) {
+            if (!batching) {
+                return false;
+            }
+            prefetched.addAll(summaries);
+            return true;
+        }
+
+        @Override
+        public boolean extractsInBackground() {
+            return batching;
+        }
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+    }
+}
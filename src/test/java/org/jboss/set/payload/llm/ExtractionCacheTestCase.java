@@ -0,0 +1,44 @@
+package org.jboss.set.payload.llm;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+public class ExtractionCacheTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEntriesSurviveRestart() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("llm.json.gz");
+        String fingerprint = ExtractionCache.fingerprint("http://localhost:35271/v1", "");
+
+        ExtractionCache cache = new ExtractionCache(file, fingerprint);
+        cache.put("[8.1.0.GA] Upgrade IronJacamar to 3.0.11.Final-redhat-00001",
+                new ComponentUpgrade("IronJacamar", "3.0.11.Final-redhat-00001"));
+        cache.save();
+
+        ExtractionCache reloaded = new ExtractionCache(file, fingerprint);
+        Assert.assertEquals(new ComponentUpgrade("IronJacamar", "3.0.11.Final-redhat-00001"),
+                reloaded.get("  [8.1.0.GA]  Upgrade IronJacamar to 3.0.11.Final-redhat-00001 "));
+        Assert.assertNull(reloaded.get("[8.1.0.GA] Upgrade IronJacamar to 3.0.12.Final-redhat-00001"));
+        Assert.assertEquals(1, reloaded.getHits());
+        Assert.assertEquals(1, reloaded.getMisses());
+    }
+
+    @Test
+    public void testChangedFingerprintDiscardsEntries() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("llm.json.gz");
+
+        ExtractionCache cache = new ExtractionCache(file, ExtractionCache.fingerprint("http://localhost:35271/v1", "a"));
+        cache.put("Upgrade Undertow to 2.3.18.Final", new ComponentUpgrade("Undertow", "2.3.18.Final"));
+        cache.save();
+
+        ExtractionCache reloaded = new ExtractionCache(file, ExtractionCache.fingerprint("http://localhost:35271/v1", "b"));
+        Assert.assertNull(reloaded.get("Upgrade Undertow to 2.3.18.Final"));
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.List;
 
 @Ignore
 // TODO: This requires an LLM instance, which may be too expensive to be running at each build. Move this to a
@@ -23,6 +24,7 @@ public class LlmSummaryExtractorTestCase {
     public LlmSummaryExtractorTestCase() {
         SmallRyeConfig config = new SmallRyeConfigBuilder()
                 .withDefaultValue("llm.base_url", "")
+                .withDefaultValue("llm.batch_size", "10")
                 .build();
          extractor = new LlmSummaryExtractor(config);
     }
@@ -60,6 +62,18 @@ public class LlmSummaryExtractorTestCase {
         Assert.assertEquals("3.0.11.Final-redhat-00001", componentUpgrade.targetVersion());
     }
 
+    @Test
+    public void testBatch() {
+        List<ComponentUpgrade> componentUpgrades = extractor.extractInfo(List.of(
+                "[8.1.0.GA] Upgrade IronJacamar to 3.0.11.Final-redhat-00001",
+                "once upon a time",
+                "(8.1.z) Upgrade Undertow from 2.3.17.Final to 2.3.18.Final"));
+        Assert.assertEquals(3, componentUpgrades.size());
+        Assert.assertEquals("IronJacamar", componentUpgrades.get(0).component());
+        Assert.assertFalse(componentUpgrades.get(1).isValid());
+        Assert.assertEquals("2.3.18.Final", componentUpgrades.get(2).targetVersion());
+    }
+
     @Test
     public void testNegativeResponse() {
         ComponentUpgrade componentUpgrade = extractor.extractInfo("once upon a time");
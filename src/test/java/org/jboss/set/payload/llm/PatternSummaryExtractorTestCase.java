@@ -0,0 +1,61 @@
+package org.jboss.set.payload.llm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PatternSummaryExtractorTestCase {
+
+    private final PatternSummaryExtractor extractor = new PatternSummaryExtractor();
+
+    @Test
+    public void testTemplates() {
+        assertExtracted("IronJacamar", "3.0.11.Final-redhat-00001",
+                "[8.1.0.GA] Upgrade IronJacamar to 3.0.11.Final-redhat-00001");
+        assertExtracted("Hibernate ORM", "6.6.4.Final", "Upgrade Hibernate ORM to 6.6.4.Final");
+        assertExtracted("Undertow", "2.3.18.Final",
+                "(8.1.z) Upgrade Undertow from 2.3.17.Final to 2.3.18.Final");
+        assertExtracted("netty", "4.1.115.Final",
+                "[8.0.z] [CVE] Upgrade netty version from 4.1.114.Final to 4.1.115.Final.");
+        assertExtracted("WildFly Elytron", "2.6.0.Final", "Component Upgrade WildFly Elytron to version 2.6.0.Final");
+    }
+
+    @Test
+    public void testNonMatching() {
+        Assert.assertNull(extractor.extractInfo("once upon a time"));
+        Assert.assertNull(extractor.extractInfo("Upgrade Undertow to 2.3.18.Final (CVE-2024-1234)"));
+        Assert.assertNull(extractor.extractInfo(null));
+    }
+
+    @Test
+    public void testChainFallsBackAndCounts() throws Exception {
+        SummaryExtractor fallback = new SummaryExtractor() {
+            @Override
+            public ComponentUpgrade extractInfo(String summary) {
+                return summary.contains("Undertow") ? new ComponentUpgrade("Undertow", "2.3.18.Final") : null;
+            }
+
+            @Override
+            public String getName() {
+                return "fallback";
+            }
+        };
+        try (ChainedSummaryExtractor chain = new ChainedSummaryExtractor(List.of(extractor, fallback))) {
+            Assert.assertEquals("Hibernate ORM", chain.extractInfo("Upgrade Hibernate ORM to 6.6.4.Final").component());
+            Assert.assertEquals("Undertow", chain.extractInfo("Undertow 2.3.18.Final (CVE-2024-1234)").component());
+            Assert.assertNull(chain.extractInfo("once upon a time"));
+
+            Assert.assertEquals(1, chain.getHits(0));
+            Assert.assertEquals(1, chain.getHits(1));
+            Assert.assertEquals(1, chain.getMisses());
+        }
+    }
+
+    private void assertExtracted(String component, String version, String summary) {
+        ComponentUpgrade componentUpgrade = extractor.extractInfo(summary);
+        Assert.assertNotNull(summary, componentUpgrade);
+        Assert.assertEquals(component, componentUpgrade.component());
+        Assert.assertEquals(version, componentUpgrade.targetVersion());
+    }
+}
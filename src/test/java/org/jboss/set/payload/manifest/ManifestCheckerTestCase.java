@@ -1,18 +1,139 @@
 package org.jboss.set.payload.manifest;
 
-import io.smallrye.common.constraint.Assert;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ManifestCheckerTestCase {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testComparator() {
         Assert.assertTrue(compareVersions("2.2.1.Final", "2.2.2.Final") < 0);
         Assert.assertTrue(compareVersions("2.2.2.Final-redhat-00002", "2.2.2.SP01") < 0);
     }
 
+    @Test
+    public void testParsedVersionsOrderLikeComparator() throws Exception {
+        List<String> versions = new ArrayList<>(ManifestChecker.loadManifestStreams(manifestPath()).values());
+        versions.addAll(List.of("2.2.1.Final", "2.2.2.Final-redhat-00002", "2.2.2.SP01", " 1.0.0 ", "1.0",
+                "1.0.0-SNAPSHOT", "1.0.0.GA", "1.0.0.Final"));
+        Map<String, String> streams = new HashMap<>();
+        for (int i = 0; i < versions.size(); i++) {
+            streams.put("org.example:artifact-" + i, versions.get(i));
+        }
+        StreamIndex index = new StreamIndex(streams);
+        for (int i = 0; i < versions.size(); i++) {
+            String indexed = index.normalizedVersion(0, index.find("org.example:artifact-" + i));
+            for (String v2 : versions) {
+                String v1 = versions.get(i);
+                Assert.assertEquals(v1 + " vs " + v2,
+                        Integer.signum(compareVersions(v1.trim(), v2.trim())),
+                        Integer.signum(compareVersions(indexed, StreamIndex.normalize(v2))));
+            }
+        }
+    }
+
+    @Test
+    public void testQueryOrdersLikeChannelComparator() throws Exception {
+        Path manifest = temporaryFolder.getRoot().toPath().resolve("ordering.yaml");
+        Files.writeString(manifest, """
+                schemaVersion: "1.0.0"
+                streams:
+                  - groupId: "org.example"
+                    artifactId: "short"
+                    version: "1.0"
+                  - groupId: "org.example"
+                    artifactId: "snapshot"
+                    version: "1.0.0-SNAPSHOT"
+                  - groupId: "org.example"
+                    artifactId: "final"
+                    version: "1.0.0.Final"
+                """);
+        ManifestChecker checker = new ManifestChecker(manifest);
+        // Unlike in Maven, "1.0" is lower than "1.0.0", and "1.0.0-SNAPSHOT" and "1.0.0.Final" are higher than "1.0.0".
+        Assert.assertFalse(checker.test(new ManifestChecker.ComponentQuery("JBEAP-1",
+                Map.of("org.example:short", "1.0.0"))));
+        Assert.assertTrue(checker.test(new ManifestChecker.ComponentQuery("JBEAP-2",
+                Map.of("org.example:snapshot", "1.0.0"))));
+        Assert.assertTrue(checker.test(new ManifestChecker.ComponentQuery("JBEAP-3",
+                Map.of("org.example:final", "1.0.0"))));
+    }
+
+    @Test
+    public void testStreamIndex() throws Exception {
+        Map<String, String> streams = ManifestChecker.loadManifestStreams(manifestPath());
+        StreamIndex index = new StreamIndex(streams);
+        Assert.assertEquals(streams.size(), index.size());
+        streams.forEach((ga, version) -> Assert.assertEquals(version, index.version(0, index.find(ga))));
+        Assert.assertFalse(index.contains("org.example:no-such-artifact"));
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        ManifestChecker checker = new ManifestChecker(manifestPath());
+        Assert.assertTrue(checker.test(new ManifestChecker.ComponentQuery("JBEAP-1",
+                Map.of("com.fasterxml.jackson.core:jackson-core", "2.18.2.redhat-00002"))));
+        Assert.assertFalse(checker.test(new ManifestChecker.ComponentQuery("JBEAP-2",
+                Map.of("com.fasterxml.jackson.core:jackson-core", "2.18.3.redhat-00001"))));
+        Assert.assertNull(checker.test(new ManifestChecker.ComponentQuery("JBEAP-3",
+                Map.of("org.example:no-such-artifact", "1.0.0"))));
+    }
+
+    @Test
+    public void testMultipleManifests() throws Exception {
+        Path eap = writeManifest("eap.yaml", "2.3.18.Final-redhat-00001", "4.1.115.Final-redhat-00001");
+        Path xp = writeManifest("xp.yaml", "2.3.17.Final-redhat-00001", null);
+        ManifestChecker checker = new ManifestChecker(List.of(eap, xp, manifestPath()));
+        Assert.assertEquals(3, checker.getManifestCount());
+
+        Boolean[] results = checker.testAll(new ManifestChecker.ComponentQuery("JBEAP-1",
+                Map.of("io.undertow:undertow-core", "2.3.18.Final-redhat-00001")));
+        Assert.assertArrayEquals(new Boolean[] {true, false, true}, results);
+
+        results = checker.testAll(new ManifestChecker.ComponentQuery("JBEAP-2",
+                Map.of("io.netty:netty-codec", "4.1.115.Final-redhat-00001")));
+        Assert.assertEquals(Boolean.TRUE, results[0]);
+        Assert.assertNull(results[1]);
+        Assert.assertEquals(Boolean.TRUE, results[2]);
+    }
+
+    private Path writeManifest(String name, String undertowVersion, String nettyVersion) throws Exception {
+        StringBuilder sb = new StringBuilder("""
+                schemaVersion: "1.0.0"
+                streams:
+                  - groupId: "io.undertow"
+                    artifactId: "undertow-core"
+                """);
+        sb.append("    version: \"").append(undertowVersion).append("\"\n");
+        if (nettyVersion != null) {
+            sb.append("""
+                      - groupId: "io.netty"
+                        artifactId: "netty-codec"
+                    """);
+            sb.append("    version: \"").append(nettyVersion).append("\"\n");
+        }
+        Path path = temporaryFolder.getRoot().toPath().resolve(name);
+        Files.writeString(path, sb.toString());
+        return path;
+    }
+
+    private static Path manifestPath() throws Exception {
+        return Path.of(ManifestCheckerTestCase.class.getClassLoader().getResource("manifest.yaml").toURI());
+    }
+
     private int compareVersions(String v1, String v2) {
         return ManifestChecker.VERSION_COMPARATOR.compare(v1, v2);
     }
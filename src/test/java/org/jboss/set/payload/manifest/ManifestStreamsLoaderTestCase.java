@@ -0,0 +1,69 @@
+package org.jboss.set.payload.manifest;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ManifestStreamsLoaderTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameStreamsAsChannelManifestMapper() throws Exception {
+        Path manifestPath = Path.of(getClass().getClassLoader().getResource("manifest.yaml").toURI());
+        ChannelManifest manifest = ChannelManifestMapper.fromString(Files.readString(manifestPath));
+        Map<String, String> expected = new HashMap<>();
+        manifest.getStreams().stream()
+                .filter(s -> s.getVersion() != null)
+                .forEach(s -> expected.put(s.getGroupId() + ":" + s.getArtifactId(), s.getVersion()));
+
+        Assert.assertEquals(expected, ManifestStreamsLoader.load(manifestPath, false));
+        Assert.assertEquals(expected, ManifestStreamsLoader.load(manifestPath, true));
+    }
+
+    @Test
+    public void testScalarsKeptAsWritten() throws Exception {
+        Path manifestPath = temporaryFolder.getRoot().toPath().resolve("manifest.yaml");
+        Files.writeString(manifestPath, """
+                schemaVersion: "1.0.0"
+                name: test
+                id: test
+                streams:
+                  - groupId: org.example
+                    artifactId: numeric
+                    version: 1.10
+                  - groupId: org.example
+                    artifactId: pattern
+                    versionPattern: ".*"
+                """);
+        Assert.assertEquals(Map.of("org.example:numeric", "1.10"), ManifestStreamsLoader.load(manifestPath));
+    }
+
+    @Test
+    public void testLargeManifest() throws Exception {
+        Path manifestPath = temporaryFolder.getRoot().toPath().resolve("manifest.yaml");
+        StringBuilder yaml = new StringBuilder("schemaVersion: \"1.0.0\"\nstreams:\n");
+        int streams = 50000;
+        for (int i = 0; i < streams; i++) {
+            yaml.append("  - groupId: org.example.group").append(i % 100).append('\n')
+                    .append("    artifactId: artifact-").append(i).append('\n')
+                    .append("    version: 1.0.").append(i).append(".Final-redhat-00001\n");
+        }
+        Files.writeString(manifestPath, yaml);
+        // Over SnakeYAML's default limit of 3M code points.
+        Assert.assertTrue(Files.size(manifestPath) > 3 * 1024 * 1024);
+
+        Map<String, String> loaded = ManifestStreamsLoader.load(manifestPath);
+        Assert.assertEquals(streams, loaded.size());
+        Assert.assertEquals("1.0.49999.Final-redhat-00001", loaded.get("org.example.group99:artifact-49999"));
+    }
+}
@@ -0,0 +1,58 @@
+package org.jboss.set.payload.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class FlightRecordingTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void disable() {
+        FlightRecording.setEnabled(false);
+    }
+
+    @Test
+    public void testEventsRecorded() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("run.jfr");
+        try (FlightRecording ignored = FlightRecording.start(file)) {
+            Assert.assertTrue(FlightRecording.isEnabled());
+
+            RemoteCallEvent call = new RemoteCallEvent(Metrics.JIRA_GET_ISSUE, "WFLY-1");
+            call.attempt = 2;
+            call.status = 503;
+            call.bytes = 42;
+            call.complete(new IllegalStateException());
+
+            ManifestCheckEvent check = new ManifestCheckEvent("WFLY-1", 3);
+            check.results = "[true]";
+            check.commit();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent call = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.jboss.set.payload.RemoteCall"))
+                .findFirst().orElseThrow();
+        Assert.assertEquals(Metrics.JIRA_GET_ISSUE, call.getString("endpoint"));
+        Assert.assertEquals("WFLY-1", call.getString("issueKey"));
+        Assert.assertEquals(2, call.getInt("attempt"));
+        Assert.assertEquals(503, call.getInt("status"));
+        Assert.assertEquals(42, call.getLong("bytes"));
+        Assert.assertEquals(IllegalStateException.class.getName(), call.getString("error"));
+
+        RecordedEvent check = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.jboss.set.payload.ManifestCheck"))
+                .findFirst().orElseThrow();
+        Assert.assertEquals(3, check.getInt("artifacts"));
+        Assert.assertEquals("[true]", check.getString("results"));
+    }
+}
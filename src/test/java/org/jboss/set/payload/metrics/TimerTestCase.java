@@ -0,0 +1,43 @@
+package org.jboss.set.payload.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimerTestCase {
+
+    @Test
+    public void testPercentiles() {
+        Timer timer = new Timer("test");
+        Assert.assertEquals(0, timer.getPercentileNanos(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            timer.record(i * 1_000_000L, i % 100 != 0);
+        }
+
+        Assert.assertEquals(1000, timer.getCount());
+        Assert.assertEquals(10, timer.getErrorCount());
+        Assert.assertEquals(1_000_000_000L, timer.getMaxNanos());
+        Assert.assertEquals(500_500_000_000L, timer.getTotalNanos());
+        assertClose(500_000_000L, timer.getPercentileNanos(50));
+        assertClose(950_000_000L, timer.getPercentileNanos(95));
+        assertClose(990_000_000L, timer.getPercentileNanos(99));
+        // Never above the maximum, even if the bucket of the maximum reaches higher.
+        Assert.assertEquals(1_000_000_000L, timer.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] {0, 1, 63, 64, 65, 127, 128, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Timer.bucket(value);
+            Assert.assertTrue(value + " above its bucket", value <= Timer.upperBound(bucket));
+            if (bucket > 0) {
+                Assert.assertTrue(value + " within the previous bucket", value > Timer.upperBound(bucket - 1));
+            }
+        }
+        Assert.assertEquals(Long.MAX_VALUE, Timer.upperBound(Timer.bucket(Long.MAX_VALUE)));
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assert.assertTrue("expected " + expected + ", was " + actual, Math.abs(actual - expected) <= expected / 50);
+    }
+}
@@ -0,0 +1,83 @@
+package org.jboss.set.payload.pnc;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class BuildArtifactsCacheTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testEntriesSurviveRestart() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        Map<String, String> artifacts = Map.of(
+                "io.undertow:undertow-core", "2.3.18.Final-redhat-00001",
+                "io.undertow:undertow-servlet", "2.3.18.Final-redhat-00001");
+
+        new BuildArtifactsCache(directory, 1024 * 1024).put("AB1234CD", artifacts);
+
+        BuildArtifactsCache cache = new BuildArtifactsCache(directory, 1024 * 1024);
+        Assert.assertEquals(artifacts, cache.get("AB1234CD"));
+        Assert.assertNull(cache.get("EF5678GH"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        BuildArtifactsCache cache = new BuildArtifactsCache(directory, Long.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            cache.put("build" + i, artifacts(i));
+        }
+        long entrySize;
+        try (Stream<Path> files = Files.list(directory)) {
+            entrySize = files.mapToLong(BuildArtifactsCacheTestCase::size).max().orElseThrow();
+        }
+        // Make "build0" the most recently used one.
+        ageEntries(directory);
+        Assert.assertNotNull(new BuildArtifactsCache(directory, Long.MAX_VALUE).get("build0"));
+
+        // Limit doesn't allow for four entries, so adding a new one evicts the least recently used ones.
+        BuildArtifactsCache limited = new BuildArtifactsCache(directory, 3 * entrySize - 1);
+        limited.put("build3", artifacts(3));
+
+        BuildArtifactsCache reloaded = new BuildArtifactsCache(directory, Long.MAX_VALUE);
+        Assert.assertNotNull(reloaded.get("build0"));
+        Assert.assertNotNull(reloaded.get("build3"));
+        Assert.assertTrue(reloaded.get("build1") == null || reloaded.get("build2") == null);
+    }
+
+    private static Map<String, String> artifacts(int build) {
+        Map<String, String> artifacts = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            artifacts.put("org.example:artifact-" + i, build + ".0." + i + ".Final-redhat-00001");
+        }
+        return artifacts;
+    }
+
+    private static void ageEntries(Path directory) throws Exception {
+        long time = System.currentTimeMillis() - 100_000;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(time));
+            }
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.jboss.set.payload.pnc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PncResolutionStrategyTestCase {
+
+    @Test
+    public void testFindBuildIds() {
+        String text = """
+                Initial build: https://orch.psi.redhat.com/pnc-web/builds/AB1234CD
+                Rebuilt: https://orch.psi.redhat.com/pnc-web/projects/123/build-configs/456/builds/EF5678GH, \
+                also https://orch.psi.redhat.com/pnc-web/builds/IJ9012KL
+                Duplicate: https://orch.psi.redhat.com/pnc-web/builds/AB1234CD
+                """;
+        Assert.assertEquals(List.of("AB1234CD", "EF5678GH", "IJ9012KL"),
+                List.copyOf(PncResolutionStrategy.findBuildIdsInText(text)));
+        Assert.assertEquals(Set.of(), PncResolutionStrategy.findBuildIdsInText("No build here."));
+    }
+
+    @Test
+    public void testMergeKeepsHighestVersion() {
+        Map<String, String> merged = PncResolutionStrategy.mergeArtifacts(List.of(
+                Map.of("io.netty:netty-codec", "4.1.115.Final-redhat-00001",
+                        "io.netty:netty-common", "4.1.115.Final-redhat-00001"),
+                Map.of("io.netty:netty-codec", "4.1.115.Final-redhat-00002",
+                        "io.netty:netty-handler", "4.1.115.Final-redhat-00002"),
+                Map.of("io.netty:netty-common", "4.1.114.Final-redhat-00003")));
+
+        Assert.assertEquals(Map.of(
+                "io.netty:netty-codec", "4.1.115.Final-redhat-00002",
+                "io.netty:netty-common", "4.1.115.Final-redhat-00001",
+                "io.netty:netty-handler", "4.1.115.Final-redhat-00002"), merged);
+    }
+
+    @Test
+    public void testFailedBuildMakesArtifactsUnknown() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<String, Map<String, String>> builds = Map.of(
+                    "AB1234CD", Map.of("io.netty:netty-codec", "4.1.115.Final-redhat-00001"),
+                    "EF5678GH", Map.of("io.netty:netty-handler", "4.1.115.Final-redhat-00001"));
+            PncResolutionStrategy.BuildArtifactsFetcher fetcher = buildId -> {
+                if (!builds.containsKey(buildId)) {
+                    throw new IllegalStateException("PNC API unavailable");
+                }
+                return builds.get(buildId);
+            };
+
+            Assert.assertEquals(2, PncResolutionStrategy.fetchArtifacts("JBEAP-1",
+                    new LinkedHashSet<>(List.of("AB1234CD", "EF5678GH")), executor, fetcher).size());
+            Assert.assertNull(PncResolutionStrategy.fetchArtifacts("JBEAP-2",
+                    new LinkedHashSet<>(List.of("AB1234CD", "IJ9012KL", "EF5678GH")), executor, fetcher));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.jboss.set.payload.verdicts;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+public class VerdictStoreTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLookupAfterReopen() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        VerdictRecord covered = verdict("JBEAP-1", "eap-8.1.0.CR1", true);
+        VerdictRecord unknown = new VerdictRecord("JBEAP-2", "eap-8.1.0.CR1", null, null, Map.of(), 2000L, 3000L);
+
+        try (VerdictStore store = new VerdictStore(directory)) {
+            store.append(covered);
+            store.append(unknown);
+            Assert.assertEquals(covered, store.get("JBEAP-1", "eap-8.1.0.CR1"));
+        }
+
+        try (VerdictStore store = new VerdictStore(directory)) {
+            Assert.assertEquals(2, store.size());
+            Assert.assertEquals(covered, store.get("JBEAP-1", "eap-8.1.0.CR1"));
+            Assert.assertEquals(unknown, store.get("JBEAP-2", "eap-8.1.0.CR1"));
+            Assert.assertNull(store.get("JBEAP-1", "eap-8.1.0.CR2"));
+            Assert.assertNull(store.get("JBEAP-3", "eap-8.1.0.CR1"));
+        }
+    }
+
+    @Test
+    public void testNewerVerdictSupersedesOlder() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (VerdictStore store = new VerdictStore(directory)) {
+            store.append(verdict("JBEAP-1", "eap-8.1.0.CR1", false));
+            store.append(verdict("JBEAP-1", "eap-8.1.0.CR1", true));
+            store.append(verdict("JBEAP-1", "xp-5.0.0.CR1", false));
+        }
+
+        try (VerdictStore store = new VerdictStore(directory)) {
+            Assert.assertEquals(2, store.size());
+            Assert.assertEquals(Boolean.TRUE, store.get("JBEAP-1", "eap-8.1.0.CR1").outcome());
+            Assert.assertEquals(2, store.get("JBEAP-1").size());
+        }
+    }
+
+    @Test
+    public void testRecoveryOfUnindexedRecords() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (VerdictStore store = new VerdictStore(directory)) {
+            store.append(verdict("JBEAP-1", "eap-8.1.0.CR1", true));
+        }
+        // A verdict appended without the index being written, followed by a torn record.
+        VerdictStore store = new VerdictStore(directory);
+        store.append(verdict("JBEAP-2", "eap-8.1.0.CR1", false));
+        try (FileChannel data = FileChannel.open(directory.resolve(VerdictStore.DATA_FILE), StandardOpenOption.APPEND)) {
+            data.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 42}));
+        }
+
+        try (VerdictStore reopened = new VerdictStore(directory)) {
+            Assert.assertEquals(2, reopened.size());
+            Assert.assertEquals(Boolean.TRUE, reopened.get("JBEAP-1", "eap-8.1.0.CR1").outcome());
+            Assert.assertEquals(Boolean.FALSE, reopened.get("JBEAP-2", "eap-8.1.0.CR1").outcome());
+        }
+
+        Files.delete(directory.resolve(VerdictStore.INDEX_FILE));
+        try (VerdictStore rebuilt = new VerdictStore(directory)) {
+            Assert.assertEquals(2, rebuilt.size());
+            Assert.assertEquals(Boolean.FALSE, rebuilt.get("JBEAP-2", "eap-8.1.0.CR1").outcome());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (VerdictStore store = new VerdictStore(directory)) {
+            for (int i = 0; i < 1500; i++) {
+                store.append(verdict("JBEAP-" + (i % 10), "eap-8.1.0.CR1", i % 2 == 0));
+            }
+        }
+        long compactedSize = Files.size(directory.resolve(VerdictStore.DATA_FILE));
+
+        try (VerdictStore store = new VerdictStore(directory)) {
+            Assert.assertEquals(10, store.size());
+            Assert.assertEquals(Boolean.FALSE, store.get("JBEAP-9", "eap-8.1.0.CR1").outcome());
+            store.append(verdict("JBEAP-10", "eap-8.1.0.CR1", true));
+            Assert.assertTrue(Files.size(directory.resolve(VerdictStore.DATA_FILE)) > compactedSize);
+        }
+        try (VerdictStore store = new VerdictStore(directory)) {
+            Assert.assertEquals(11, store.size());
+            Assert.assertEquals(Boolean.TRUE, store.get("JBEAP-10", "eap-8.1.0.CR1").outcome());
+        }
+    }
+
+    @Test
+    public void testCanBeCarriedForward() {
+        VerdictRecord verdict = verdict("JBEAP-1", "eap-8.1.0.CR1", true);
+
+        Assert.assertTrue(verdict.canBeCarriedForward(1000L, Set.of("org.jboss.logging:jboss-logging")));
+        // Issue has been updated since.
+        Assert.assertFalse(verdict.canBeCarriedForward(1001L, Set.of()));
+        // Stream of the upgrade artifact has changed.
+        Assert.assertFalse(verdict.canBeCarriedForward(1000L, Set.of("io.undertow:undertow-core")));
+    }
+
+    private static VerdictRecord verdict(String issueKey, String manifestReference, boolean outcome) {
+        return new VerdictRecord(issueKey, manifestReference, "PncResolutionStrategy", outcome,
+                Map.of("io.undertow:undertow-core", "2.3.18.Final"), 1000L, 2000L);
+    }
+}